@@ -7,6 +7,7 @@ plugins {
     spotless(GRADLE)
     spotless(JAVA)
     alias(libs.plugins.jreleaser)
+    alias(libs.plugins.jmh)
 }
 
 group = "team.idealstate.sugar.boot"
@@ -53,6 +54,17 @@ dependencies {
     annotationProcessor(libs.lombok)
     testCompileOnly(libs.lombok)
     testAnnotationProcessor(libs.lombok)
+
+    testImplementation(libs.h2)
+    jmh(libs.h2)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.core)
+    includeTests.set(false)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    (findProperty("jmh.includes") as String?)?.let { includes.add(it) }
 }
 
 publishing {
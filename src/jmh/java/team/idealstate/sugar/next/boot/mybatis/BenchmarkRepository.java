@@ -0,0 +1,38 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+public interface BenchmarkRepository {
+
+    @Select("SELECT id, name, age FROM bench_user WHERE id = #{id}")
+    BenchmarkUser findById(@Param("id") long id);
+
+    @Select("SELECT id, name, age FROM bench_user WHERE age >= #{age}")
+    List<BenchmarkUser> findByAge(@Param("age") int age);
+
+    @Update("UPDATE bench_user SET name = #{name}, age = #{age} WHERE id = #{id}")
+    int update(BenchmarkUser user);
+
+    default long identity(long value) {
+        return value;
+    }
+}
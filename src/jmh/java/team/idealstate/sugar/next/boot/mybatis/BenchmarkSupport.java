@@ -0,0 +1,144 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.DataSource;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.h2.jdbcx.JdbcDataSource;
+import team.idealstate.sugar.next.boot.mybatis.factory.AbstractMapperBeanFactory;
+import team.idealstate.sugar.next.boot.mybatis.spi.CacheFactory;
+import team.idealstate.sugar.next.boot.mybatis.spi.MyBatisConfigurationBuilder;
+import team.idealstate.sugar.next.database.DataSourceProvider;
+
+final class BenchmarkSupport {
+
+    static final int ROWS = 1024;
+
+    private BenchmarkSupport() {}
+
+    static DataSource createDataSource(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcConnectionPool pool = JdbcConnectionPool.create(dataSource);
+        pool.setMaxConnections(256);
+        try (Connection connection = pool.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS bench_user (id BIGINT PRIMARY KEY, name VARCHAR(64), age INT)");
+            statement.execute("DELETE FROM bench_user");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench_user VALUES (?, ?, ?)")) {
+                for (int i = 0; i < ROWS; i++) {
+                    insert.setLong(1, i);
+                    insert.setString(2, "user-" + i);
+                    insert.setInt(3, i % 100);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        return pool;
+    }
+
+    static MyBatisConfiguration createConfiguration(boolean cacheEnabled) {
+        return new MyBatisConfiguration(
+                false,
+                new MyBatisConfiguration.Cache(cacheEnabled, 0, Collections.emptyMap()),
+                new MyBatisConfiguration.StatementCache(false, 64),
+                new MyBatisConfiguration.Async(Runtime.getRuntime().availableProcessors(), 30000),
+                new MyBatisConfiguration.Streaming(128, 8192),
+                new MyBatisConfiguration.Retry(Arrays.asList("40001", "40P01")),
+                new MyBatisConfiguration.Snapshot(false, "cache-snapshot", 0, 1024),
+                new MyBatisConfiguration.NearCache(false, 1024, 1000),
+                new MyBatisConfiguration.NegativeCache(Collections.emptyList(), 4096, 300),
+                new MyBatisConfiguration.BatchLoading(false, 100),
+                new MyBatisConfiguration.Limiter(false, 16, 1, 64, 100),
+                new MyBatisConfiguration.CacheAdmission(false, 1000, 10, 300),
+                new MyBatisConfiguration.CachePipeline(false, 10000),
+                new MyBatisConfiguration.Watchdog(false, 1000, 10000, 0),
+                new MyBatisConfiguration.IdentityMap(false, 1024),
+                Collections.singletonMap("mapUnderscoreToCamelCase", true));
+    }
+
+    static MyBatis createMyBatis(String name, CacheFactory cacheFactory) throws SQLException {
+        return createMyBatis(name, cacheFactory, Collections.emptyList());
+    }
+
+    static MyBatis createMyBatis(String name, CacheFactory cacheFactory, List<MyBatisConfigurationBuilder> builders)
+            throws SQLException {
+        DataSource dataSource = createDataSource(name);
+        return MyBatis.standalone(
+                "benchmark",
+                createConfiguration(cacheFactory != null),
+                new EmbeddedDataSourceProvider(dataSource),
+                cacheFactory,
+                builders);
+    }
+
+    static CacheFactory perpetualCacheFactory() {
+        return (id, expired, properties) -> new PerpetualCache(id);
+    }
+
+    static CacheFactory discardingCacheFactory() {
+        return (id, expired, properties) -> new DiscardingCache(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T createRepositoryProxy(MyBatis myBatis, Class<T> repositoryType) throws Exception {
+        return (T) new ByteBuddy()
+                .subclass(repositoryType)
+                .method(ElementMatchers.any().and(ElementMatchers.not(ElementMatchers.isStatic())))
+                .intercept(MethodDelegation.withDefaultConfiguration()
+                        .to(new AbstractMapperBeanFactory.MapperInterceptor(myBatis, repositoryType)))
+                .make()
+                .load(repositoryType.getClassLoader())
+                .getLoaded()
+                .getConstructor()
+                .newInstance();
+    }
+
+    static final class EmbeddedDataSourceProvider implements DataSourceProvider {
+        private final DataSource dataSource;
+
+        EmbeddedDataSourceProvider(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+    }
+
+    static final class DiscardingCache extends PerpetualCache {
+        DiscardingCache(String id) {
+            super(id);
+        }
+
+        @Override
+        public void putObject(Object key, Object value) {}
+    }
+}
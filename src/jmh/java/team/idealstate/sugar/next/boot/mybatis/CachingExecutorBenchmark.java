@@ -0,0 +1,128 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import team.idealstate.sugar.next.database.DatabaseSessionFactory;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachingExecutorBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int plans;
+
+    private MyBatis uncached;
+    private MyBatis cached;
+    private MyBatis discarding;
+
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        uncached = BenchmarkSupport.createMyBatis("caching-none", null);
+        cached = BenchmarkSupport.createMyBatis("caching-perpetual", BenchmarkSupport.perpetualCacheFactory());
+        discarding = BenchmarkSupport.createMyBatis("caching-discarding", BenchmarkSupport.discardingCacheFactory());
+        MyBatisSession session = open(cached);
+        try {
+            session.getRepository(BenchmarkRepository.class).findById(1L);
+            session.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Sessions {
+        private MyBatisSession uncached;
+        private long next;
+
+        @Setup(Level.Iteration)
+        public void open(CachingExecutorBenchmark benchmark) {
+            uncached = CachingExecutorBenchmark.open(benchmark.uncached);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() {
+            uncached.close();
+        }
+
+        private long nextId() {
+            return next++ % BenchmarkSupport.ROWS;
+        }
+    }
+
+    @Benchmark
+    public BenchmarkUser withoutCache(Sessions sessions) {
+        return sessions.uncached.getRepository(BenchmarkRepository.class).findById(1L);
+    }
+
+    @Benchmark
+    public BenchmarkUser cacheHit() {
+        MyBatisSession session = open(cached);
+        try {
+            return session.getRepository(BenchmarkRepository.class).findById(1L);
+        } finally {
+            session.close();
+        }
+    }
+
+    @Benchmark
+    public BenchmarkUser cacheMiss(Sessions sessions) {
+        MyBatisSession session = open(discarding);
+        try {
+            return session.getRepository(BenchmarkRepository.class).findById(sessions.nextId());
+        } finally {
+            session.close();
+        }
+    }
+
+    @Benchmark
+    public void commit(Sessions sessions, Blackhole blackhole) {
+        MyBatisSession session = open(discarding);
+        try {
+            BenchmarkRepository repository = session.getRepository(BenchmarkRepository.class);
+            for (int i = 0; i < plans; i++) {
+                blackhole.consume(repository.findById(sessions.nextId()));
+            }
+            session.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    private static MyBatisSession open(MyBatis myBatis) {
+        return (MyBatisSession) myBatis.openSession(
+                DatabaseSessionFactory.DEFAULT_EXECUTION_MODE, DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import team.idealstate.sugar.next.database.DatabaseSessionFactory;
+import team.idealstate.sugar.next.database.TransactionSession;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperInterceptorBenchmark {
+
+    private MyBatis myBatis;
+    private BenchmarkRepository proxy;
+
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        myBatis = BenchmarkSupport.createMyBatis("interceptor", BenchmarkSupport.perpetualCacheFactory());
+        proxy = BenchmarkSupport.createRepositoryProxy(myBatis, BenchmarkRepository.class);
+    }
+
+    @State(Scope.Thread)
+    public static class Transaction {
+        private TransactionSession session;
+
+        @Setup(Level.Iteration)
+        public void open(MapperInterceptorBenchmark benchmark) {
+            session = benchmark.myBatis.openTransaction(
+                    DatabaseSessionFactory.DEFAULT_EXECUTION_MODE, DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws Throwable {
+            session.close();
+        }
+    }
+
+    @Benchmark
+    public long directDispatch(Transaction transaction) {
+        return myBatis.getRepository(BenchmarkRepository.class).identity(1L);
+    }
+
+    @Benchmark
+    public long proxyDispatch(Transaction transaction) {
+        return proxy.identity(1L);
+    }
+
+    @Benchmark
+    public BenchmarkUser directQuery(Transaction transaction) {
+        return myBatis.getRepository(BenchmarkRepository.class).findById(1L);
+    }
+
+    @Benchmark
+    public BenchmarkUser proxyQuery(Transaction transaction) {
+        return proxy.findById(1L);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import team.idealstate.sugar.next.boot.mybatis.codegen.GeneratedResultMapperBuilder;
+import team.idealstate.sugar.next.database.DatabaseSessionFactory;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultMappingBenchmark {
+
+    private MyBatis reflective;
+    private MyBatis generated;
+
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        reflective = BenchmarkSupport.createMyBatis("mapping-reflective", null);
+        generated = BenchmarkSupport.createMyBatis(
+                "mapping-generated", null, Collections.singletonList(new GeneratedResultMapperBuilder()));
+    }
+
+    @State(Scope.Thread)
+    public static class Sessions {
+        private MyBatisSession reflective;
+        private MyBatisSession generated;
+
+        @Setup(Level.Iteration)
+        public void open(ResultMappingBenchmark benchmark) {
+            reflective = ResultMappingBenchmark.open(benchmark.reflective);
+            generated = ResultMappingBenchmark.open(benchmark.generated);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() {
+            reflective.close();
+            generated.close();
+        }
+    }
+
+    @Benchmark
+    public List<BenchmarkUser> reflectiveList(Sessions sessions) {
+        return sessions.reflective.getRepository(BenchmarkRepository.class).findByAge(0);
+    }
+
+    @Benchmark
+    public List<BenchmarkUser> generatedList(Sessions sessions) {
+        return sessions.generated.getRepository(BenchmarkRepository.class).findByAge(0);
+    }
+
+    @Benchmark
+    public BenchmarkUser reflectiveOne(Sessions sessions) {
+        return sessions.reflective.getRepository(BenchmarkRepository.class).findById(1L);
+    }
+
+    @Benchmark
+    public BenchmarkUser generatedOne(Sessions sessions) {
+        return sessions.generated.getRepository(BenchmarkRepository.class).findById(1L);
+    }
+
+    private static MyBatisSession open(MyBatis myBatis) {
+        return (MyBatisSession) myBatis.openSession(
+                DatabaseSessionFactory.DEFAULT_EXECUTION_MODE, DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL);
+    }
+}
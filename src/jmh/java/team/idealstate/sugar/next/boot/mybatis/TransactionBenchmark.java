@@ -0,0 +1,113 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import team.idealstate.sugar.next.boot.mybatis.factory.TransactionComponentBeanFactory;
+import team.idealstate.sugar.next.database.DatabaseSessionFactory;
+import team.idealstate.sugar.next.database.TransactionSession;
+import team.idealstate.sugar.next.database.annotation.Transaction;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionBenchmark {
+
+    private MyBatis myBatis;
+    private String method;
+    private TransactionComponentBeanFactory.TransactionInterceptor interceptor;
+    private Callable<Object> query;
+
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        myBatis = BenchmarkSupport.createMyBatis("transaction", BenchmarkSupport.perpetualCacheFactory());
+        Method transactional = TransactionBenchmark.class.getMethod("transactional");
+        method = transactional.toString();
+        Transaction transaction = transactional.getAnnotation(Transaction.class);
+        interceptor = new TransactionComponentBeanFactory.TransactionInterceptor(
+                myBatis,
+                Collections.singletonMap(
+                        method,
+                        new TransactionComponentBeanFactory.TransactionDefinition(
+                                transaction, MyBatis.PROPAGATION_REQUIRED, null, null)));
+        query = () -> myBatis.getRepository(BenchmarkRepository.class).findById(1L);
+        interceptor.intercept(method, query);
+    }
+
+    @Transaction
+    public void transactional() {}
+
+    @Benchmark
+    @Threads(1)
+    public void openTransaction1() throws Throwable {
+        openTransaction();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void openTransaction4() throws Throwable {
+        openTransaction();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void openTransactionMax() throws Throwable {
+        openTransaction();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object intercept1() throws Throwable {
+        return interceptor.intercept(method, query);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object intercept4() throws Throwable {
+        return interceptor.intercept(method, query);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object interceptMax() throws Throwable {
+        return interceptor.intercept(method, query);
+    }
+
+    private void openTransaction() throws Throwable {
+        TransactionSession session = myBatis.openTransaction(
+                DatabaseSessionFactory.DEFAULT_EXECUTION_MODE, DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL);
+        session.close();
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import team.idealstate.sugar.next.boot.mybatis.annotation.SeekBy;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.boot.mybatis.pagination.Keyset;
+import team.idealstate.sugar.next.boot.mybatis.pagination.KeysetPage;
+import team.idealstate.sugar.next.boot.mybatis.pagination.KeysetPagination;
+import team.idealstate.sugar.next.boot.mybatis.result.CompactResults;
+import team.idealstate.sugar.next.boot.mybatis.result.CompactRowBounds;
+import team.idealstate.sugar.next.boot.mybatis.stream.FetchSizeTuner;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+final class MapperMethods {
+
+    private static final Set<Class<?>> ADAPTED_TYPES = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(CompletableFuture.class, Stream.class, KeysetPage.class)));
+    private static final Map<Method, ParamNameResolver> PARAM_NAME_RESOLVERS = new ConcurrentHashMap<>();
+    private static final Field RESULT_MAPS_FIELD;
+
+    static {
+        try {
+            RESULT_MAPS_FIELD = MappedStatement.class.getDeclaredField("resultMaps");
+            RESULT_MAPS_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    private MapperMethods() {}
+
+    @NotNull
+    static String getStatementId(@NotNull Class<?> repositoryType, @NotNull Method method) {
+        return repositoryType.getName() + "." + method.getName();
+    }
+
+    @NotNull
+    static Type getResultType(@NotNull Method method) {
+        Type returnType = method.getGenericReturnType();
+        if (ADAPTED_TYPES.contains(method.getReturnType())) {
+            if (!(returnType instanceof ParameterizedType)) {
+                return Object.class;
+            }
+            return ((ParameterizedType) returnType).getActualTypeArguments()[0];
+        }
+        return returnType;
+    }
+
+    @NotNull
+    static Class<?> getRawType(@NotNull Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return getRawType(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(getRawType(((GenericArrayType) type).getGenericComponentType()), 0)
+                    .getClass();
+        }
+        return Object.class;
+    }
+
+    @NotNull
+    static Class<?> getElementType(@NotNull Type type) {
+        Class<?> rawType = getRawType(type);
+        if (rawType.isArray()) {
+            return rawType.getComponentType();
+        }
+        if ((Collection.class.isAssignableFrom(rawType) || Optional.class.equals(rawType))
+                && type instanceof ParameterizedType) {
+            return getRawType(((ParameterizedType) type).getActualTypeArguments()[0]);
+        }
+        return rawType;
+    }
+
+    static Object getParameter(@NotNull Configuration configuration, @NotNull Method method, Object[] arguments) {
+        return PARAM_NAME_RESOLVERS
+                .computeIfAbsent(method, it -> new ParamNameResolver(configuration, it))
+                .getNamedParams(arguments);
+    }
+
+    static void adapt(@NotNull Configuration configuration, @NotNull Class<?> repositoryType) {
+        for (Method method : repositoryType.getMethods()) {
+            if (method.isDefault() || !ADAPTED_TYPES.contains(method.getReturnType())) {
+                continue;
+            }
+            String statement = getStatementId(repositoryType, method);
+            if (!configuration.hasStatement(statement, false)) {
+                continue;
+            }
+            MappedStatement ms = configuration.getMappedStatement(statement, false);
+            List<ResultMap> resultMaps = ms.getResultMaps();
+            if (resultMaps.size() == 1 && method.getReturnType().equals(resultMaps.get(0).getType())) {
+                ResultMap resultMap = new ResultMap.Builder(
+                                configuration,
+                                resultMaps.get(0).getId(),
+                                getElementType(getResultType(method)),
+                                new ArrayList<>(),
+                                null)
+                        .build();
+                try {
+                    RESULT_MAPS_FIELD.set(ms, Collections.singletonList(resultMap));
+                } catch (IllegalAccessException e) {
+                    throw new MyBatisException(e);
+                }
+            }
+            if (KeysetPage.class.equals(method.getReturnType())) {
+                KeysetPagination.adapt(ms, method.getAnnotation(SeekBy.class));
+            }
+        }
+    }
+
+    static Object execute(
+            @NotNull SqlSession sqlSession,
+            @NotNull Class<?> repositoryType,
+            @NotNull Method method,
+            Object[] arguments,
+            @NotNull Type resultType) {
+        Configuration configuration = sqlSession.getConfiguration();
+        String statement = getStatementId(repositoryType, method);
+        MappedStatement ms = configuration.getMappedStatement(statement);
+        Object parameter = getParameter(configuration, method, arguments);
+        Class<?> rawType = getRawType(resultType);
+        switch (ms.getSqlCommandType()) {
+            case SELECT:
+                if (KeysetPage.class.equals(method.getReturnType())) {
+                    Keyset keyset = KeysetPagination.find(parameter);
+                    if (keyset == null) {
+                        throw new MyBatisException(
+                                String.format("Mapper method '%s' requires a Keyset parameter.", statement));
+                    }
+                    return KeysetPagination.page(ms, sqlSession.selectList(statement, parameter), keyset);
+                }
+                if (CompactResults.isCompact(rawType)) {
+                    List<Object> list = sqlSession.selectList(statement, parameter, new CompactRowBounds(rawType));
+                    return list.isEmpty() ? CompactResults.empty(rawType) : list.get(0);
+                }
+                if (Collection.class.isAssignableFrom(rawType) || rawType.isArray()) {
+                    return toMany(configuration, rawType, sqlSession.selectList(statement, parameter));
+                }
+                if (Optional.class.equals(rawType)) {
+                    return Optional.ofNullable(sqlSession.selectOne(statement, parameter));
+                }
+                return sqlSession.selectOne(statement, parameter);
+            case INSERT:
+                return toRowCount(statement, rawType, sqlSession.insert(statement, parameter));
+            case UPDATE:
+                return toRowCount(statement, rawType, sqlSession.update(statement, parameter));
+            case DELETE:
+                return toRowCount(statement, rawType, sqlSession.delete(statement, parameter));
+            case FLUSH:
+                return sqlSession.flushStatements();
+            default:
+                throw new MyBatisException(String.format("Unknown execution method for: %s", statement));
+        }
+    }
+
+    @NotNull
+    static Stream<Object> stream(
+            @NotNull SqlSession sqlSession,
+            @NotNull Class<?> repositoryType,
+            @NotNull Method method,
+            Object[] arguments,
+            @NotNull FetchSizeTuner tuner,
+            @NotNull Runnable closer) {
+        Configuration configuration = sqlSession.getConfiguration();
+        String statement = getStatementId(repositoryType, method);
+        Object parameter = getParameter(configuration, method, arguments);
+        Cursor<Object> cursor = tuner.prepare(() -> sqlSession.selectCursor(statement, parameter));
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Runnable close = () -> {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                throw new MyBatisException(e);
+            } finally {
+                closer.run();
+            }
+        };
+        Iterator<Object> iterator = cursor.iterator();
+        Iterator<Object> tuned = new Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+                if (closed.get()) {
+                    return false;
+                }
+                boolean hasNext = iterator.hasNext();
+                if (!hasNext) {
+                    close.run();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Object next() {
+                Object next = iterator.next();
+                tuner.onNext();
+                return next;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(tuned, Spliterator.ORDERED), false)
+                .onClose(close);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object toMany(@NotNull Configuration configuration, @NotNull Class<?> rawType, List<?> list) {
+        if (rawType.isArray()) {
+            Object array = Array.newInstance(rawType.getComponentType(), list.size());
+            for (int i = 0; i < list.size(); i++) {
+                Array.set(array, i, list.get(i));
+            }
+            return array;
+        }
+        if (rawType.isAssignableFrom(list.getClass())) {
+            return list;
+        }
+        if (rawType.isAssignableFrom(LinkedHashSet.class)) {
+            return new LinkedHashSet<>(list);
+        }
+        Collection collection = (Collection) configuration.getObjectFactory().create(rawType);
+        collection.addAll(list);
+        return collection;
+    }
+
+    private static Object toRowCount(@NotNull String statement, @NotNull Class<?> rawType, int rowCount) {
+        if (Void.class.equals(rawType) || void.class.equals(rawType)) {
+            return null;
+        }
+        if (Integer.class.equals(rawType) || int.class.equals(rawType)) {
+            return rowCount;
+        }
+        if (Long.class.equals(rawType) || long.class.equals(rawType)) {
+            return (long) rowCount;
+        }
+        if (Boolean.class.equals(rawType) || boolean.class.equals(rawType)) {
+            return rowCount > 0;
+        }
+        throw new MyBatisException(
+                String.format("Mapper method '%s' has an unsupported return type: %s", statement, rawType));
+    }
+}
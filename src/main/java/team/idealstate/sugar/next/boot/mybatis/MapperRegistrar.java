@@ -0,0 +1,81 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.ibatis.binding.MapperProxyFactory;
+import org.apache.ibatis.session.SqlSession;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+final class MapperRegistrar {
+
+    private final Map<Class<?>, MapperProxyFactory<?>> factories = new ConcurrentHashMap<>();
+    private final Map<Class<?>, CompletableFuture<Void>> registrations = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+
+    boolean isRegistered(@NotNull Class<?> repositoryType) {
+        return factories.containsKey(repositoryType);
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    <T> T getMapper(@NotNull Class<T> repositoryType, @NotNull SqlSession sqlSession) {
+        Validation.notNull(repositoryType, "Repository type must not be null.");
+        Validation.notNull(sqlSession, "Sql session must not be null.");
+        MapperProxyFactory<T> factory = (MapperProxyFactory<T>) factories.get(repositoryType);
+        if (factory == null) {
+            throw new MyBatisException(String.format("Repository '%s' is not registered.", repositoryType.getName()));
+        }
+        return factory.newInstance(sqlSession);
+    }
+
+    void register(@NotNull Class<?> repositoryType, @NotNull Runnable registration) {
+        Validation.notNull(repositoryType, "Repository type must not be null.");
+        Validation.notNull(registration, "Registration must not be null.");
+        if (factories.containsKey(repositoryType)) {
+            return;
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> existing = registrations.putIfAbsent(repositoryType, future);
+        if (existing != null) {
+            try {
+                existing.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof MyBatisException ? (MyBatisException) cause : new MyBatisException(cause);
+            }
+            return;
+        }
+        try {
+            synchronized (lock) {
+                registration.run();
+            }
+        } catch (Throwable e) {
+            registrations.remove(repositoryType, future);
+            future.completeExceptionally(e);
+            throw e instanceof MyBatisException ? (MyBatisException) e : new MyBatisException(e);
+        }
+        factories.put(repositoryType, new MapperProxyFactory<>(repositoryType));
+        registrations.remove(repositoryType, future);
+        future.complete(null);
+    }
+}
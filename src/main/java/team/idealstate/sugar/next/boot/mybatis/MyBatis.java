@@ -16,15 +16,26 @@
 
 package team.idealstate.sugar.next.boot.mybatis;
 
+import static team.idealstate.sugar.next.function.Functional.functional;
 import static team.idealstate.sugar.next.function.Functional.lazy;
 
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.Data;
+import lombok.NonNull;
 import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
@@ -32,13 +43,34 @@ import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.TransactionFactory;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.cache.NearCacheFactory;
+import team.idealstate.sugar.next.boot.mybatis.cache.NegativeCacheFactory;
+import team.idealstate.sugar.next.boot.mybatis.cache.SnapshotCacheFactory;
+import team.idealstate.sugar.next.boot.mybatis.concurrent.AdaptiveLimiter;
+import team.idealstate.sugar.next.boot.mybatis.concurrent.DatabaseExecutor;
 import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
 import team.idealstate.sugar.next.boot.mybatis.logging.LogImpl;
+import team.idealstate.sugar.next.boot.mybatis.metrics.FlightRecorderEvent;
+import team.idealstate.sugar.next.boot.mybatis.metrics.MyBatisMetrics;
+import team.idealstate.sugar.next.boot.mybatis.plugin.CacheAdmission;
+import team.idealstate.sugar.next.boot.mybatis.plugin.CachePipeline;
 import team.idealstate.sugar.next.boot.mybatis.plugin.CachingInterceptor;
+import team.idealstate.sugar.next.boot.mybatis.plugin.CompactResultInterceptor;
+import team.idealstate.sugar.next.boot.mybatis.plugin.FlightRecorderInterceptor;
+import team.idealstate.sugar.next.boot.mybatis.plugin.LimitingInterceptor;
+import team.idealstate.sugar.next.boot.mybatis.plugin.StreamingInterceptor;
+import team.idealstate.sugar.next.boot.mybatis.plugin.WatchdogInterceptor;
 import team.idealstate.sugar.next.boot.mybatis.spi.CacheFactory;
 import team.idealstate.sugar.next.boot.mybatis.spi.MyBatisConfigurationBuilder;
+import team.idealstate.sugar.next.boot.mybatis.spi.RetryClassifier;
+import team.idealstate.sugar.next.boot.mybatis.stream.FetchSizeTuner;
+import team.idealstate.sugar.next.boot.mybatis.transaction.PreparedStatementCache;
+import team.idealstate.sugar.next.boot.mybatis.transaction.SqlStateRetryClassifier;
+import team.idealstate.sugar.next.boot.mybatis.transaction.StatementCachingTransactionFactory;
+import team.idealstate.sugar.next.boot.mybatis.transaction.TransactionWatchdog;
 import team.idealstate.sugar.next.context.Bean;
 import team.idealstate.sugar.next.context.Context;
 import team.idealstate.sugar.next.context.annotation.component.Component;
@@ -54,10 +86,11 @@ import team.idealstate.sugar.next.database.exception.TransactionException;
 import team.idealstate.sugar.next.function.Lazy;
 import team.idealstate.sugar.validate.Validation;
 import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
 
 @Component
 @SuppressWarnings("unused")
-public class MyBatis implements Initializable, ContextAware, DatabaseSessionFactory, TransactionManager {
+public class MyBatis implements Initializable, ContextAware, DatabaseSessionFactory, TransactionManager, AutoCloseable {
 
     public static final int EXECUTION_MODE_SIMPLE = 0;
     public static final int EXECUTION_MODE_REUSE = 1;
@@ -79,12 +112,26 @@ public class MyBatis implements Initializable, ContextAware, DatabaseSessionFact
             TransactionIsolationLevel.SERIALIZABLE,
             TransactionIsolationLevel.SQL_SERVER_SNAPSHOT));
 
+    public static final int PROPAGATION_REQUIRED = 0;
+    public static final int PROPAGATION_REQUIRES_NEW = 1;
+    public static final int PROPAGATION_NESTED = 2;
+    public static final int PROPAGATION_NOT_SUPPORTED = 3;
+
     @NotNull
     @Override
     public DatabaseSession openSession(int executionMode, int isolationLevel) {
+        return openSession(executionMode, isolationLevel, false);
+    }
+
+    @NotNull
+    private MyBatisSession openSession(int executionMode, int isolationLevel, boolean autoCommit) {
         SqlSession sqlSession;
         SqlSessionFactory sqlSessionFactory = getLazySqlSessionFactory().get();
-        if (executionMode == DEFAULT_EXECUTION_MODE && isolationLevel == DEFAULT_ISOLATION_LEVEL) {
+        if (autoCommit) {
+            sqlSession = executionMode == DEFAULT_EXECUTION_MODE
+                    ? sqlSessionFactory.openSession(true)
+                    : sqlSessionFactory.openSession(EXECUTION_MODES.get(executionMode), true);
+        } else if (executionMode == DEFAULT_EXECUTION_MODE && isolationLevel == DEFAULT_ISOLATION_LEVEL) {
             sqlSession = sqlSessionFactory.openSession();
         } else if (executionMode == DEFAULT_EXECUTION_MODE) {
             sqlSession = sqlSessionFactory.openSession(ISOLATION_LEVELS.get(isolationLevel));
@@ -95,8 +142,13 @@ public class MyBatis implements Initializable, ContextAware, DatabaseSessionFact
                     EXECUTION_MODES.get(executionMode), ISOLATION_LEVELS.get(isolationLevel));
         }
         try {
-            return new MyBatisSession(
-                    sqlSession, getContext().getClassLoader(), cacheFactory, expired, cacheProperties);
+            MyBatisSession session = new MyBatisSession(
+                    sqlSession, getClassLoader(), cacheFactory, expired, cacheProperties, mapperRegistrar);
+            TransactionWatchdog watchdog = this.watchdog;
+            if (watchdog != null) {
+                session.setWatchdogEntry(watchdog.open());
+            }
+            return session;
         } catch (Throwable e) {
             sqlSession.close();
             if (e instanceof MyBatisException) {
@@ -107,48 +159,264 @@ public class MyBatis implements Initializable, ContextAware, DatabaseSessionFact
         }
     }
 
-    private final Map<Thread, TransactionSession> transactionSessions = new ConcurrentHashMap<>();
+    private final Map<Thread, Deque<TransactionFrame>> transactionSessions = new ConcurrentHashMap<>();
 
-    @SuppressWarnings("resource")
     @NotNull
     @Override
     public TransactionSession openTransaction(int executionMode, int isolationLevel) {
-        return transactionSessions
-                .computeIfAbsent(
-                        Thread.currentThread(),
-                        thread -> new TransactionSession(
-                                openSession(executionMode, isolationLevel), () -> transactionSessions.remove(thread)))
-                .open();
+        return openTransaction(executionMode, isolationLevel, PROPAGATION_REQUIRED);
+    }
+
+    @NotNull
+    public TransactionSession openTransaction(int executionMode, int isolationLevel, int propagation) {
+        Object event = FlightRecorderEvent.TRANSACTION_OPEN.begin();
+        try {
+            return doOpenTransaction(executionMode, isolationLevel, propagation);
+        } finally {
+            if (event != null) {
+                FlightRecorderEvent.TRANSACTION_OPEN.commit(event, propagation, executionMode, isolationLevel);
+            }
+        }
+    }
+
+    @SuppressWarnings("resource")
+    @NotNull
+    private TransactionSession doOpenTransaction(int executionMode, int isolationLevel, int propagation) {
+        Thread thread = Thread.currentThread();
+        Deque<TransactionFrame> frames = transactionSessions.get(thread);
+        TransactionFrame current = frames == null ? null : frames.peek();
+        boolean joinable = current != null && current.isTransactional();
+        switch (propagation) {
+            case PROPAGATION_REQUIRED:
+                if (joinable) {
+                    if (current.getExecutionMode() != executionMode
+                            || current.getIsolationLevel() != isolationLevel) {
+                        Log.debug(() -> String.format(
+                                "Joining the current transaction, execution mode %s and isolation level %s are ignored.",
+                                executionMode, isolationLevel));
+                    }
+                    return current.getSession().open();
+                }
+                break;
+            case PROPAGATION_REQUIRES_NEW:
+                break;
+            case PROPAGATION_NESTED:
+                if (joinable) {
+                    return pushTransaction(
+                            thread,
+                            current.getDatabaseSession().savepoint(),
+                            current.getDatabaseSession(),
+                            executionMode,
+                            isolationLevel,
+                            true);
+                }
+                break;
+            case PROPAGATION_NOT_SUPPORTED:
+                MyBatisSession session = openSession(executionMode, isolationLevel, true);
+                return pushTransaction(thread, session, session, executionMode, isolationLevel, false);
+            default:
+                throw new MyBatisException(String.format("Unknown transaction propagation: %s", propagation));
+        }
+        MyBatisSession session = openSession(executionMode, isolationLevel, false);
+        return pushTransaction(thread, session, session, executionMode, isolationLevel, true);
+    }
+
+    @NotNull
+    SqlCommandType getSqlCommandType(@NotNull Class<?> repositoryType, @NotNull Method method) {
+        MyBatisSession session = openSession(DEFAULT_EXECUTION_MODE, DEFAULT_ISOLATION_LEVEL, true);
+        try {
+            return session.getSqlCommandType(repositoryType, method);
+        } finally {
+            session.close();
+        }
+    }
+
+    @NotNull
+    private TransactionSession pushTransaction(
+            @NotNull Thread thread,
+            @NotNull DatabaseSession session,
+            @NotNull MyBatisSession databaseSession,
+            int executionMode,
+            int isolationLevel,
+            boolean transactional) {
+        Deque<TransactionFrame> frames = transactionSessions.computeIfAbsent(thread, it -> new ArrayDeque<>());
+        TransactionSession transactionSession = new TransactionSession(session, () -> {
+            frames.poll();
+            if (frames.isEmpty()) {
+                transactionSessions.remove(thread);
+            }
+        });
+        frames.push(new TransactionFrame(
+                transactionSession, databaseSession, executionMode, isolationLevel, transactional));
+        return transactionSession.open();
     }
 
     @NotNull
     @Override
     public <T> T getRepository(@NotNull Class<T> repositoryType) throws TransactionException {
-        TransactionSession transactionSession = transactionSessions.get(Thread.currentThread());
-        if (transactionSession == null) {
+        return getCurrentFrame().getSession().getRepository(repositoryType);
+    }
+
+    public boolean isTransactionActive() {
+        Deque<TransactionFrame> frames = transactionSessions.get(Thread.currentThread());
+        TransactionFrame current = frames == null ? null : frames.peek();
+        return current != null && current.isTransactional();
+    }
+
+    public boolean isRetryable(@NotNull Throwable throwable) {
+        Validation.notNull(throwable, "Throwable must not be null.");
+        return getLazyRetryClassifier().get().isRetryable(throwable);
+    }
+
+    private final MyBatisMetrics metrics = new MyBatisMetrics();
+
+    @NotNull
+    public MyBatisMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Nullable
+    public AdaptiveLimiter getLimiter() {
+        getLazySqlSessionFactory().get();
+        return limiter;
+    }
+
+    @Nullable
+    public TransactionWatchdog getWatchdog() {
+        getLazySqlSessionFactory().get();
+        return watchdog;
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        Thread shutdownHook = this.shutdownHook;
+        if (shutdownHook != null && shutdownHook != Thread.currentThread()) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ignored) {
+            }
+        }
+        DatabaseExecutor databaseExecutor = this.databaseExecutor;
+        if (databaseExecutor != null) {
+            databaseExecutor.close();
+        }
+        CachePipeline cachePipeline = this.cachePipeline;
+        if (cachePipeline != null) {
+            cachePipeline.close();
+        }
+        TransactionWatchdog watchdog = this.watchdog;
+        if (watchdog != null) {
+            watchdog.close();
+        }
+        SnapshotCacheFactory snapshotCacheFactory = this.snapshotCacheFactory;
+        if (snapshotCacheFactory != null) {
+            snapshotCacheFactory.close();
+        }
+    }
+
+    private synchronized void registerShutdownHook() {
+        if (shutdownHook == null && !closed.get()) {
+            Thread shutdownHook = new Thread(this::close, "mybatis-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+            this.shutdownHook = shutdownHook;
+        }
+    }
+
+    @NotNull
+    private TransactionFrame getCurrentFrame() throws TransactionException {
+        Deque<TransactionFrame> frames = transactionSessions.get(Thread.currentThread());
+        TransactionFrame current = frames == null ? null : frames.peek();
+        if (current == null) {
             throw new TransactionException("transaction session is not opened.");
         }
-        return transactionSession.getRepository(repositoryType);
+        return current;
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(
+            @NotNull Class<?> repositoryType, @NotNull Method method, Object[] arguments) {
+        Validation.notNull(repositoryType, "Repository type must not be null.");
+        Validation.notNull(method, "Method must not be null.");
+        return getLazyDatabaseExecutor().get().submit(
+                () -> (T) executeInTransaction(repositoryType, method, arguments, PROPAGATION_REQUIRES_NEW));
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T> Stream<T> stream(@NotNull Class<?> repositoryType, @NotNull Method method, Object[] arguments) {
+        Validation.notNull(repositoryType, "Repository type must not be null.");
+        Validation.notNull(method, "Method must not be null.");
+        MyBatisConfiguration.Streaming streaming = getConfiguration().getStreaming();
+        FetchSizeTuner tuner = new FetchSizeTuner(streaming.getFetchSize(), streaming.getMaxFetchSize());
+        Deque<TransactionFrame> frames = transactionSessions.get(Thread.currentThread());
+        TransactionFrame current = frames == null ? null : frames.peek();
+        if (current != null) {
+            return (Stream<T>) current.getDatabaseSession().stream(repositoryType, method, arguments, tuner, () -> {});
+        }
+        MyBatisSession session = openSession(DEFAULT_EXECUTION_MODE, DEFAULT_ISOLATION_LEVEL, false);
+        try {
+            return (Stream<T>) session.stream(repositoryType, method, arguments, tuner, session::close);
+        } catch (Throwable e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    public Object execute(@NotNull Class<?> repositoryType, @NotNull Method method, Object[] arguments)
+            throws TransactionException {
+        Validation.notNull(repositoryType, "Repository type must not be null.");
+        Validation.notNull(method, "Method must not be null.");
+        return getCurrentFrame().getDatabaseSession().execute(repositoryType, method, arguments);
+    }
+
+    public Object executeInTransaction(@NotNull Class<?> repositoryType, @NotNull Method method, Object[] arguments) {
+        Validation.notNull(repositoryType, "Repository type must not be null.");
+        Validation.notNull(method, "Method must not be null.");
+        return executeInTransaction(repositoryType, method, arguments, PROPAGATION_REQUIRED);
+    }
+
+    private Object executeInTransaction(
+            @NotNull Class<?> repositoryType, @NotNull Method method, Object[] arguments, int propagation) {
+        try {
+            return functional(openTransaction(DEFAULT_EXECUTION_MODE, DEFAULT_ISOLATION_LEVEL, propagation))
+                    .use(Object.class, session -> {
+                        try {
+                            return getCurrentFrame().getDatabaseSession().execute(repositoryType, method, arguments);
+                        } catch (Throwable e) {
+                            session.rollback();
+                            throw e;
+                        }
+                    });
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    @Data
+    private static final class TransactionFrame {
+        @NonNull
+        private final TransactionSession session;
+
+        @NonNull
+        private final MyBatisSession databaseSession;
+
+        private final int executionMode;
+        private final int isolationLevel;
+        private final boolean transactional;
     }
 
     @Override
     public void initialize() {
         this.lazySqlSessionFactory = lazy(() -> {
-            MyBatisConfiguration configuration = getConfiguration();
             Context context = getContext();
-            Configuration myBatisConfig = new Configuration(new Environment.Builder(context.getEnvironment())
-                    .dataSource(getDatabaseSourceProvider().getDataSource())
-                    .transactionFactory(new JdbcTransactionFactory())
-                    .build());
-            if (configuration.getLog()) {
-                myBatisConfig.setLogImpl(LogImpl.class);
-            }
-            myBatisConfig.setLocalCacheScope(LocalCacheScope.STATEMENT);
-            MyBatisConfiguration.Cache cache = configuration.getCache();
-            myBatisConfig.setCacheEnabled(false);
-            Boolean cacheEnabled = cache.getEnabled();
-            this.cacheProperties = Collections.emptyMap();
-            if (cacheEnabled) {
+            CacheFactory cacheFactory = null;
+            if (getConfiguration().getCache().getEnabled()) {
                 List<Bean<CacheFactory>> beans = context.getBeans(CacheFactory.class);
                 if (beans.isEmpty()) {
                     Log.warn("No MyBatis cache factory bean found, disable and skip.");
@@ -157,32 +425,171 @@ public class MyBatis implements Initializable, ContextAware, DatabaseSessionFact
                             "There are multiple MyBatis cache factory beans in the current context, please specify one of them. %s",
                             beans.stream().map(Bean::getName).collect(Collectors.toList())));
                 } else {
-                    this.cacheFactory = beans.get(0).getInstance();
-                    this.expired = cache.getExpired();
-                    myBatisConfig.addInterceptor(new CachingInterceptor());
-                    this.cacheProperties = cache.getProperties();
+                    cacheFactory = beans.get(0).getInstance();
                 }
             }
-            Map<String, Object> properties = configuration.getProperties();
-            Object property = properties.get("mapUnderscoreToCamelCase");
-            if (property != null) {
-                myBatisConfig.setMapUnderscoreToCamelCase(Boolean.parseBoolean(property.toString()));
-            }
-            List<Bean<MyBatisConfigurationBuilder>> builders = context.getBeans(MyBatisConfigurationBuilder.class);
-            for (Bean<MyBatisConfigurationBuilder> builder : builders) {
-                builder.getInstance().build(myBatisConfig);
+            List<MyBatisConfigurationBuilder> builders = context.getBeans(MyBatisConfigurationBuilder.class).stream()
+                    .map(Bean::getInstance)
+                    .collect(Collectors.toList());
+            return buildSqlSessionFactory(context.getEnvironment(), cacheFactory, builders);
+        });
+        this.lazyRetryClassifier = lazy(() -> {
+            List<Bean<RetryClassifier>> beans = getContext().getBeans(RetryClassifier.class);
+            if (beans.isEmpty()) {
+                return new SqlStateRetryClassifier(getConfiguration().getRetry().getSqlStates());
+            } else if (beans.size() != 1) {
+                throw new MyBatisException(String.format(
+                        "There are multiple MyBatis retry classifier beans in the current context, please specify one of them. %s",
+                        beans.stream().map(Bean::getName).collect(Collectors.toList())));
             }
-            return new SqlSessionFactoryBuilder().build(myBatisConfig);
+            return beans.get(0).getInstance();
+        });
+        this.lazyDatabaseExecutor = lazy(() -> {
+            MyBatisConfiguration.Async async = getConfiguration().getAsync();
+            DatabaseExecutor databaseExecutor = new DatabaseExecutor(async.getConcurrency(), async.getTimeout());
+            this.databaseExecutor = databaseExecutor;
+            return databaseExecutor;
         });
     }
 
+    @NotNull
+    private SqlSessionFactory buildSqlSessionFactory(
+            @NotNull String environment,
+            @Nullable CacheFactory cacheFactory,
+            @NotNull List<MyBatisConfigurationBuilder> builders) {
+        MyBatisConfiguration configuration = getConfiguration();
+        MyBatisConfiguration.StatementCache statementCache = configuration.getStatementCache();
+        TransactionFactory transactionFactory = statementCache.getEnabled()
+                ? new StatementCachingTransactionFactory(new PreparedStatementCache(statementCache.getSize()))
+                : new JdbcTransactionFactory();
+        Configuration myBatisConfig = new Configuration(new Environment.Builder(environment)
+                .dataSource(getDatabaseSourceProvider().getDataSource())
+                .transactionFactory(transactionFactory)
+                .build());
+        if (configuration.getLog()) {
+            myBatisConfig.setLogImpl(LogImpl.class);
+        }
+        myBatisConfig.setLocalCacheScope(LocalCacheScope.STATEMENT);
+        myBatisConfig.addInterceptor(new StreamingInterceptor());
+        myBatisConfig.addInterceptor(new CompactResultInterceptor());
+        myBatisConfig.addInterceptor(new FlightRecorderInterceptor());
+        MyBatisConfiguration.Watchdog watchdog = configuration.getWatchdog();
+        if (watchdog.getEnabled()) {
+            this.watchdog = new TransactionWatchdog(
+                    metrics, watchdog.getInterval(), watchdog.getWarnAfter(), watchdog.getAbortAfter());
+            myBatisConfig.addInterceptor(new WatchdogInterceptor(this.watchdog));
+        }
+        MyBatisConfiguration.Limiter limiter = configuration.getLimiter();
+        if (limiter.getEnabled()) {
+            this.limiter = new AdaptiveLimiter(
+                    metrics,
+                    limiter.getInitialLimit(),
+                    limiter.getMinLimit(),
+                    limiter.getMaxLimit(),
+                    limiter.getMaxWait());
+            myBatisConfig.addInterceptor(new LimitingInterceptor(this.limiter));
+        }
+        MyBatisConfiguration.Cache cache = configuration.getCache();
+        myBatisConfig.setCacheEnabled(false);
+        this.cacheProperties = Collections.emptyMap();
+        if (cacheFactory != null) {
+            MyBatisConfiguration.Snapshot snapshot = configuration.getSnapshot();
+            if (snapshot.getEnabled()) {
+                this.snapshotCacheFactory = new SnapshotCacheFactory(
+                        cacheFactory,
+                        myBatisConfig,
+                        getClassLoader(),
+                        Paths.get(snapshot.getDirectory()).resolve(environment),
+                        snapshot.getMaxEntries(),
+                        snapshot.getInterval());
+                cacheFactory = this.snapshotCacheFactory;
+                registerShutdownHook();
+            }
+            MyBatisConfiguration.NearCache nearCache = configuration.getNearCache();
+            if (nearCache.getEnabled()) {
+                cacheFactory = new NearCacheFactory(cacheFactory, nearCache.getSize(), nearCache.getTtl());
+            }
+            MyBatisConfiguration.NegativeCache negativeCache = configuration.getNegativeCache();
+            if (!negativeCache.getNamespaces().isEmpty()) {
+                cacheFactory = new NegativeCacheFactory(
+                        cacheFactory,
+                        negativeCache.getNamespaces(),
+                        negativeCache.getSize(),
+                        negativeCache.getResetInterval());
+            }
+            this.cacheFactory = cacheFactory;
+            this.expired = cache.getExpired();
+            this.cacheProperties = cache.getProperties();
+        }
+        MyBatisConfiguration.BatchLoading batchLoading = configuration.getBatchLoading();
+        MyBatisConfiguration.IdentityMap identityMap = configuration.getIdentityMap();
+        if (cacheFactory != null || batchLoading.getEnabled() || identityMap.getEnabled()) {
+            MyBatisConfiguration.CacheAdmission cacheAdmission = configuration.getCacheAdmission();
+            MyBatisConfiguration.CachePipeline cachePipeline = configuration.getCachePipeline();
+            if (cacheFactory != null && cachePipeline.getEnabled()) {
+                this.cachePipeline = new CachePipeline(metrics, cachePipeline.getCapacity());
+            }
+            myBatisConfig.addInterceptor(new CachingInterceptor(
+                    batchLoading.getEnabled() ? batchLoading.getBatchSize() : 0,
+                    cacheFactory != null && cacheAdmission.getEnabled()
+                            ? new CacheAdmission(
+                                    metrics,
+                                    cacheAdmission.getMinSamples(),
+                                    cacheAdmission.getMinHitRatio(),
+                                    cacheAdmission.getProbeInterval())
+                            : null,
+                    this.cachePipeline,
+                    identityMap.getEnabled() ? identityMap.getSize() : 0));
+        }
+        Map<String, Object> properties = configuration.getProperties();
+        Object property = properties.get("mapUnderscoreToCamelCase");
+        if (property != null) {
+            myBatisConfig.setMapUnderscoreToCamelCase(Boolean.parseBoolean(property.toString()));
+        }
+        for (MyBatisConfigurationBuilder builder : builders) {
+            builder.build(myBatisConfig);
+        }
+        return new SqlSessionFactoryBuilder().build(myBatisConfig);
+    }
+
+    @NotNull
+    static MyBatis standalone(
+            @NotNull String environment,
+            @NotNull MyBatisConfiguration configuration,
+            @NotNull DataSourceProvider dataSourceProvider,
+            @Nullable CacheFactory cacheFactory,
+            @NotNull List<MyBatisConfigurationBuilder> builders) {
+        MyBatis myBatis = new MyBatis();
+        myBatis.setConfiguration(configuration);
+        myBatis.setDatabaseSourceProvider(dataSourceProvider);
+        myBatis.initialize();
+        myBatis.classLoader = MyBatis.class.getClassLoader();
+        myBatis.lazySqlSessionFactory =
+                lazy(() -> myBatis.buildSqlSessionFactory(environment, cacheFactory, builders));
+        myBatis.lazyRetryClassifier =
+                lazy(() -> new SqlStateRetryClassifier(configuration.getRetry().getSqlStates()));
+        return myBatis;
+    }
+
     private volatile Lazy<SqlSessionFactory> lazySqlSessionFactory;
+    private volatile Lazy<DatabaseExecutor> lazyDatabaseExecutor;
+    private volatile Lazy<RetryClassifier> lazyRetryClassifier;
 
     @NotNull
     private Lazy<SqlSessionFactory> getLazySqlSessionFactory() {
         return Validation.requireNotNull(lazySqlSessionFactory, "lazy sql session factory must not be null.");
     }
 
+    @NotNull
+    private Lazy<DatabaseExecutor> getLazyDatabaseExecutor() {
+        return Validation.requireNotNull(lazyDatabaseExecutor, "lazy database executor must not be null.");
+    }
+
+    @NotNull
+    private Lazy<RetryClassifier> getLazyRetryClassifier() {
+        return Validation.requireNotNull(lazyRetryClassifier, "lazy retry classifier must not be null.");
+    }
+
     private volatile Context context;
 
     @Override
@@ -195,6 +602,14 @@ public class MyBatis implements Initializable, ContextAware, DatabaseSessionFact
         return Validation.requireNotNull(context, "context must not be null.");
     }
 
+    private volatile ClassLoader classLoader;
+
+    @NotNull
+    private ClassLoader getClassLoader() {
+        ClassLoader classLoader = this.classLoader;
+        return classLoader == null ? getContext().getClassLoader() : classLoader;
+    }
+
     private volatile MyBatisConfiguration configuration;
 
     @Autowired
@@ -210,6 +625,14 @@ public class MyBatis implements Initializable, ContextAware, DatabaseSessionFact
     private volatile CacheFactory cacheFactory;
     private volatile int expired;
     private volatile Map<String, Object> cacheProperties;
+    private final MapperRegistrar mapperRegistrar = new MapperRegistrar();
+    private volatile AdaptiveLimiter limiter;
+    private volatile TransactionWatchdog watchdog;
+    private volatile SnapshotCacheFactory snapshotCacheFactory;
+    private volatile DatabaseExecutor databaseExecutor;
+    private volatile CachePipeline cachePipeline;
+    private volatile Thread shutdownHook;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
     private volatile DataSourceProvider dataSourceProvider;
 
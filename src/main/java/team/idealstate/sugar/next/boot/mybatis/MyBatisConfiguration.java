@@ -16,13 +16,21 @@
 
 package team.idealstate.sugar.next.boot.mybatis;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import team.idealstate.sugar.next.context.annotation.component.Configuration;
+import team.idealstate.sugar.validate.annotation.NotNull;
 
 @Configuration(uri = "/database/MyBatis.yml", release = "bundled:/database/MyBatis.yml")
 @Data
+@RequiredArgsConstructor
+@AllArgsConstructor
 public class MyBatisConfiguration {
 
     @NonNull
@@ -31,9 +39,100 @@ public class MyBatisConfiguration {
     @NonNull
     private Cache cache;
 
+    private StatementCache statementCache;
+
+    private Async async;
+
+    private Streaming streaming;
+
+    private Retry retry;
+
+    private Snapshot snapshot;
+
+    private NearCache nearCache;
+
+    private NegativeCache negativeCache;
+
+    private BatchLoading batchLoading;
+
+    private Limiter limiter;
+
+    private CacheAdmission cacheAdmission;
+
+    private CachePipeline cachePipeline;
+
+    private Watchdog watchdog;
+
+    private IdentityMap identityMap;
+
     @NonNull
     private Map<String, Object> properties;
 
+    @NotNull
+    public StatementCache getStatementCache() {
+        return statementCache == null ? new StatementCache(false, 64) : statementCache;
+    }
+
+    @NotNull
+    public Async getAsync() {
+        return async == null ? new Async(16, 30000) : async;
+    }
+
+    @NotNull
+    public Streaming getStreaming() {
+        return streaming == null ? new Streaming(128, 8192) : streaming;
+    }
+
+    @NotNull
+    public Retry getRetry() {
+        return retry == null ? new Retry(Arrays.asList("40001", "40P01")) : retry;
+    }
+
+    @NotNull
+    public Snapshot getSnapshot() {
+        return snapshot == null ? new Snapshot(false, "cache-snapshot", 0, 1024) : snapshot;
+    }
+
+    @NotNull
+    public NearCache getNearCache() {
+        return nearCache == null ? new NearCache(false, 1024, 1000) : nearCache;
+    }
+
+    @NotNull
+    public NegativeCache getNegativeCache() {
+        return negativeCache == null ? new NegativeCache(Collections.emptyList(), 4096, 300) : negativeCache;
+    }
+
+    @NotNull
+    public BatchLoading getBatchLoading() {
+        return batchLoading == null ? new BatchLoading(false, 100) : batchLoading;
+    }
+
+    @NotNull
+    public Limiter getLimiter() {
+        return limiter == null ? new Limiter(false, 16, 1, 64, 100) : limiter;
+    }
+
+    @NotNull
+    public CacheAdmission getCacheAdmission() {
+        return cacheAdmission == null ? new CacheAdmission(false, 1000, 10, 300) : cacheAdmission;
+    }
+
+    @NotNull
+    public CachePipeline getCachePipeline() {
+        return cachePipeline == null ? new CachePipeline(false, 10000) : cachePipeline;
+    }
+
+    @NotNull
+    public Watchdog getWatchdog() {
+        return watchdog == null ? new Watchdog(false, 1000, 10000, 0) : watchdog;
+    }
+
+    @NotNull
+    public IdentityMap getIdentityMap() {
+        return identityMap == null ? new IdentityMap(false, 1024) : identityMap;
+    }
+
     @Data
     public static class Cache {
         @NonNull
@@ -45,4 +144,151 @@ public class MyBatisConfiguration {
         @NonNull
         private Map<String, Object> properties;
     }
+
+    @Data
+    public static class StatementCache {
+        @NonNull
+        private Boolean enabled;
+
+        @NonNull
+        private Integer size;
+    }
+
+    @Data
+    public static class Async {
+        @NonNull
+        private Integer concurrency;
+
+        @NonNull
+        private Integer timeout;
+    }
+
+    @Data
+    public static class Streaming {
+        @NonNull
+        private Integer fetchSize;
+
+        @NonNull
+        private Integer maxFetchSize;
+    }
+
+    @Data
+    public static class Retry {
+        @NonNull
+        private List<String> sqlStates;
+    }
+
+    @Data
+    public static class Snapshot {
+        @NonNull
+        private Boolean enabled;
+
+        @NonNull
+        private String directory;
+
+        @NonNull
+        private Integer interval;
+
+        @NonNull
+        private Integer maxEntries;
+    }
+
+    @Data
+    public static class NearCache {
+        @NonNull
+        private Boolean enabled;
+
+        @NonNull
+        private Integer size;
+
+        @NonNull
+        private Integer ttl;
+    }
+
+    @Data
+    public static class NegativeCache {
+        @NonNull
+        private List<String> namespaces;
+
+        @NonNull
+        private Integer size;
+
+        @NonNull
+        private Integer resetInterval;
+    }
+
+    @Data
+    public static class BatchLoading {
+        @NonNull
+        private Boolean enabled;
+
+        @NonNull
+        private Integer batchSize;
+    }
+
+    @Data
+    public static class Limiter {
+        @NonNull
+        private Boolean enabled;
+
+        @NonNull
+        private Integer initialLimit;
+
+        @NonNull
+        private Integer minLimit;
+
+        @NonNull
+        private Integer maxLimit;
+
+        @NonNull
+        private Integer maxWait;
+    }
+
+    @Data
+    public static class CacheAdmission {
+        @NonNull
+        private Boolean enabled;
+
+        @NonNull
+        private Integer minSamples;
+
+        @NonNull
+        private Integer minHitRatio;
+
+        @NonNull
+        private Integer probeInterval;
+    }
+
+    @Data
+    public static class CachePipeline {
+        @NonNull
+        private Boolean enabled;
+
+        @NonNull
+        private Integer capacity;
+    }
+
+    @Data
+    public static class Watchdog {
+        @NonNull
+        private Boolean enabled;
+
+        @NonNull
+        private Integer interval;
+
+        @NonNull
+        private Integer warnAfter;
+
+        @NonNull
+        private Integer abortAfter;
+    }
+
+    @Data
+    public static class IdentityMap {
+        @NonNull
+        private Boolean enabled;
+
+        @NonNull
+        private Integer size;
+    }
 }
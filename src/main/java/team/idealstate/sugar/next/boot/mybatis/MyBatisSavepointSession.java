@@ -0,0 +1,95 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
+import lombok.Data;
+import lombok.NonNull;
+import org.apache.ibatis.session.SqlSession;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.boot.mybatis.plugin.CachingInterceptor;
+import team.idealstate.sugar.next.database.DatabaseSession;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+@Data
+final class MyBatisSavepointSession implements DatabaseSession {
+
+    @NonNull
+    private final MyBatisSession session;
+
+    @NonNull
+    private final Savepoint savepoint;
+
+    private final int cacheMark;
+    private volatile boolean completed;
+
+    @NotNull
+    @Override
+    public <T> T getRepository(@NotNull Class<T> repositoryType) {
+        return session.getRepository(repositoryType);
+    }
+
+    @Override
+    public void commit() {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        SqlSession sqlSession = session.getSqlSession();
+        sqlSession.flushStatements();
+        try {
+            sqlSession.getConnection().releaseSavepoint(savepoint);
+        } catch (SQLFeatureNotSupportedException ignored) {
+        } catch (SQLException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    @Override
+    public void rollback() {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        SqlSession sqlSession = session.getSqlSession();
+        try {
+            sqlSession.flushStatements();
+        } catch (Throwable e) {
+            Log.debug(() -> String.format("Failed to flush statements before rollback to savepoint: %s", e));
+        }
+        try {
+            Connection connection = sqlSession.getConnection();
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            throw new MyBatisException(e);
+        } finally {
+            CachingInterceptor.CachingExecutorWrapper executor = session.getCachingExecutor();
+            if (executor != null) {
+                executor.rollbackCache(cacheMark);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        commit();
+    }
+}
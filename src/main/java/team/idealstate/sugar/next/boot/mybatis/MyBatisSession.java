@@ -16,18 +16,31 @@
 
 package team.idealstate.sugar.next.boot.mybatis;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.Map;
+import java.util.stream.Stream;
 import lombok.Data;
 import lombok.NonNull;
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
 import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.boot.mybatis.metrics.FlightRecorderEvent;
+import team.idealstate.sugar.next.boot.mybatis.plugin.CachingInterceptor;
 import team.idealstate.sugar.next.boot.mybatis.spi.CacheFactory;
+import team.idealstate.sugar.next.boot.mybatis.stream.FetchSizeTuner;
+import team.idealstate.sugar.next.boot.mybatis.transaction.TransactionWatchdog;
 import team.idealstate.sugar.next.database.DatabaseSession;
 import team.idealstate.sugar.validate.Validation;
 import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
 
 @Data
 final class MyBatisSession implements DatabaseSession {
@@ -42,30 +55,116 @@ final class MyBatisSession implements DatabaseSession {
     private final Integer expired;
     private final Map<String, Object> cacheProperties;
 
+    @NonNull
+    private final MapperRegistrar mapperRegistrar;
+
+    private volatile TransactionWatchdog.Entry watchdogEntry;
+
     @NotNull
     @Override
     public <T> T getRepository(@NotNull Class<T> repositoryType) {
+        if (!mapperRegistrar.isRegistered(repositoryType)) {
+            mapperRegistrar.register(repositoryType, () -> {
+                Object event = FlightRecorderEvent.MAPPER_REGISTRATION.begin();
+                try {
+                    addRepository(repositoryType);
+                } finally {
+                    if (event != null) {
+                        FlightRecorderEvent.MAPPER_REGISTRATION.commit(event, repositoryType.getName());
+                    }
+                }
+            });
+        }
+        return mapperRegistrar.getMapper(repositoryType, sqlSession);
+    }
+
+    private void addRepository(@NotNull Class<?> repositoryType) {
         Configuration configuration = sqlSession.getConfiguration();
         MapperRegistry mapperRegistry = configuration.getMapperRegistry();
-        if (!mapperRegistry.hasMapper(repositoryType)) {
-            Thread thread = Thread.currentThread();
-            ClassLoader threadContextClassLoader = thread.getContextClassLoader();
-            try {
-                thread.setContextClassLoader(getClassLoader());
-                String namespace = repositoryType.getName();
-                if (cacheFactory != null && !configuration.hasCache(namespace)) {
-                    Cache cache = cacheFactory.createCache(namespace, expired, cacheProperties);
-                    Validation.notNull(cache, "Cache must not be null.");
-                    Log.debug(() -> String.format("Adding cache: %s", namespace));
-                    configuration.addCache(cache);
-                }
-                Log.debug(() -> String.format("Adding mapper: %s", repositoryType.getName()));
-                mapperRegistry.addMapper(repositoryType);
-            } finally {
-                thread.setContextClassLoader(threadContextClassLoader);
+        if (mapperRegistry.hasMapper(repositoryType)) {
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        ClassLoader threadContextClassLoader = thread.getContextClassLoader();
+        try {
+            thread.setContextClassLoader(getClassLoader());
+            String namespace = repositoryType.getName();
+            if (cacheFactory != null && !configuration.hasCache(namespace)) {
+                Cache cache = cacheFactory.createCache(namespace, expired, cacheProperties);
+                Validation.notNull(cache, "Cache must not be null.");
+                Log.debug(() -> String.format("Adding cache: %s", namespace));
+                configuration.addCache(cache);
             }
+            Log.debug(() -> String.format("Adding mapper: %s", repositoryType.getName()));
+            mapperRegistry.addMapper(repositoryType);
+            MapperMethods.adapt(configuration, repositoryType);
+        } finally {
+            thread.setContextClassLoader(threadContextClassLoader);
+        }
+    }
+
+    Object execute(@NotNull Class<?> repositoryType, @NotNull Method method, Object[] arguments) {
+        getRepository(repositoryType);
+        return MapperMethods.execute(
+                sqlSession, repositoryType, method, arguments, MapperMethods.getResultType(method));
+    }
+
+    @NotNull
+    SqlCommandType getSqlCommandType(@NotNull Class<?> repositoryType, @NotNull Method method) {
+        getRepository(repositoryType);
+        return sqlSession
+                .getConfiguration()
+                .getMappedStatement(MapperMethods.getStatementId(repositoryType, method))
+                .getSqlCommandType();
+    }
+
+    @NotNull
+    Stream<Object> stream(
+            @NotNull Class<?> repositoryType,
+            @NotNull Method method,
+            Object[] arguments,
+            @NotNull FetchSizeTuner tuner,
+            @NotNull Runnable closer) {
+        getRepository(repositoryType);
+        return MapperMethods.stream(sqlSession, repositoryType, method, arguments, tuner, closer);
+    }
+
+    @NotNull
+    DatabaseSession savepoint() {
+        sqlSession.flushStatements();
+        CachingInterceptor.CachingExecutorWrapper executor = getCachingExecutor();
+        try {
+            Savepoint savepoint = sqlSession.getConnection().setSavepoint();
+            return new MyBatisSavepointSession(this, savepoint, executor == null ? 0 : executor.markCache());
+        } catch (SQLException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    @Nullable
+    CachingInterceptor.CachingExecutorWrapper getCachingExecutor() {
+        if (!(sqlSession instanceof DefaultSqlSession)) {
+            return null;
+        }
+        try {
+            Object executor = EXECUTOR_FIELD.get(sqlSession);
+            return executor instanceof CachingInterceptor.CachingExecutorWrapper
+                    ? (CachingInterceptor.CachingExecutorWrapper) executor
+                    : null;
+        } catch (IllegalAccessException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    private static final Field EXECUTOR_FIELD;
+
+    static {
+        try {
+            EXECUTOR_FIELD = DefaultSqlSession.class.getDeclaredField("executor");
+            EXECUTOR_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new MyBatisException(e);
         }
-        return sqlSession.getMapper(repositoryType);
     }
 
     @Override
@@ -80,6 +179,13 @@ final class MyBatisSession implements DatabaseSession {
 
     @Override
     public void close() {
-        sqlSession.close();
+        try {
+            sqlSession.close();
+        } finally {
+            TransactionWatchdog.Entry entry = watchdogEntry;
+            if (entry != null) {
+                entry.close();
+            }
+        }
     }
 }
@@ -0,0 +1,477 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import static team.idealstate.sugar.next.function.Functional.functional;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import lombok.Data;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.bind.annotation.AllArguments;
+import net.bytebuddy.implementation.bind.annotation.Origin;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.annotation.ShardKey;
+import team.idealstate.sugar.next.boot.mybatis.annotation.ShardMerge;
+import team.idealstate.sugar.next.boot.mybatis.cache.ShardCacheFactory;
+import team.idealstate.sugar.next.boot.mybatis.concurrent.DatabaseExecutor;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.boot.mybatis.pagination.KeysetPage;
+import team.idealstate.sugar.next.boot.mybatis.result.CompactResults;
+import team.idealstate.sugar.next.boot.mybatis.spi.CacheFactory;
+import team.idealstate.sugar.next.boot.mybatis.spi.MyBatisConfigurationBuilder;
+import team.idealstate.sugar.next.boot.mybatis.spi.ShardDataSourceProvider;
+import team.idealstate.sugar.next.database.DataSourceProvider;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+public final class ShardedMyBatis implements AutoCloseable {
+
+    private static final ObjectFactory OBJECT_FACTORY = new DefaultObjectFactory();
+
+    private final ShardDataSourceProvider dataSourceProvider;
+    private final Map<String, MyBatis> shards;
+    private final List<String> shardNames;
+    private final DatabaseExecutor executor;
+    private final Map<Method, Route> routes = new ConcurrentHashMap<>();
+    private final Map<Method, SqlCommandType> commandTypes = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Object> repositories = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private ShardedMyBatis(
+            @NotNull ShardDataSourceProvider dataSourceProvider,
+            @NotNull Map<String, MyBatis> shards,
+            @NotNull DatabaseExecutor executor) {
+        this.dataSourceProvider = dataSourceProvider;
+        this.shards = Collections.unmodifiableMap(shards);
+        this.shardNames = Collections.unmodifiableList(new ArrayList<>(shards.keySet()));
+        this.executor = executor;
+    }
+
+    @NotNull
+    public static ShardedMyBatis standalone(
+            @NotNull MyBatisConfiguration configuration,
+            @NotNull ShardDataSourceProvider dataSourceProvider,
+            @Nullable CacheFactory cacheFactory,
+            @NotNull List<MyBatisConfigurationBuilder> builders) {
+        Validation.notNull(configuration, "Configuration must not be null.");
+        Validation.notNull(dataSourceProvider, "Shard data source provider must not be null.");
+        Validation.notNull(builders, "Builders must not be null.");
+        Map<String, DataSource> dataSources = dataSourceProvider.getDataSources();
+        Validation.is(dataSources != null && !dataSources.isEmpty(), "Data sources must not be empty.");
+        Map<String, MyBatis> shards = new LinkedHashMap<>(dataSources.size());
+        for (Map.Entry<String, DataSource> entry : dataSources.entrySet()) {
+            String shard = entry.getKey();
+            DataSource dataSource = entry.getValue();
+            Validation.notNull(shard, "Shard must not be null.");
+            Validation.notNull(dataSource, "Data source must not be null.");
+            shards.put(
+                    shard,
+                    MyBatis.standalone(
+                            shard,
+                            configuration,
+                            new ShardDataSource(dataSource),
+                            cacheFactory == null ? null : new ShardCacheFactory(cacheFactory, shard),
+                            builders));
+        }
+        MyBatisConfiguration.Async async = configuration.getAsync();
+        return new ShardedMyBatis(
+                dataSourceProvider, shards, new DatabaseExecutor(async.getConcurrency(), async.getTimeout()));
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        executor.close();
+        for (MyBatis shard : shards.values()) {
+            try {
+                shard.close();
+            } catch (Throwable e) {
+                Log.error(e);
+            }
+        }
+    }
+
+    @NotNull
+    public List<String> getShards() {
+        return shardNames;
+    }
+
+    @NotNull
+    public MyBatis getShard(@NotNull String shard) {
+        Validation.notNull(shard, "Shard must not be null.");
+        MyBatis myBatis = shards.get(shard);
+        if (myBatis == null) {
+            throw new MyBatisException(String.format("Unknown shard: %s", shard));
+        }
+        return myBatis;
+    }
+
+    @NotNull
+    public MyBatis route(@NotNull Object key) {
+        Validation.notNull(key, "Shard key must not be null.");
+        return getShard(dataSourceProvider.getShard(key, shardNames));
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T> T getRepository(@NotNull Class<T> repositoryType) {
+        Validation.notNull(repositoryType, "Repository type must not be null.");
+        Validation.is(repositoryType.isInterface(), "Repository type must be an interface.");
+        return (T) repositories.computeIfAbsent(repositoryType, this::createRepository);
+    }
+
+    @NotNull
+    private Object createRepository(@NotNull Class<?> repositoryType) {
+        Class<?> proxyType = functional(new ByteBuddy()
+                        .subclass(repositoryType)
+                        .method(ElementMatchers.isAbstract())
+                        .intercept(MethodDelegation.withDefaultConfiguration()
+                                .to(new ShardInterceptor(this, repositoryType)))
+                        .make())
+                .use(Class.class, unloaded -> unloaded.load(repositoryType.getClassLoader())
+                        .getLoaded());
+        try {
+            return proxyType.getConstructor().newInstance();
+        } catch (InstantiationException
+                | IllegalAccessException
+                | InvocationTargetException
+                | NoSuchMethodException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    public Object execute(@NotNull Class<?> repositoryType, @NotNull Method method, Object[] arguments) {
+        Validation.notNull(repositoryType, "Repository type must not be null.");
+        Validation.notNull(method, "Method must not be null.");
+        Route route = routes.computeIfAbsent(method, ShardedMyBatis::createRoute);
+        if (route.getIndex() < 0) {
+            return scatter(repositoryType, method, arguments, route);
+        }
+        Object key = route.getKey(arguments);
+        if (key == null) {
+            throw new MyBatisException(String.format("Shard key of '%s' must not be null.", method));
+        }
+        MyBatis shard = route(key);
+        Class<?> returnType = method.getReturnType();
+        if (CompletableFuture.class.equals(returnType)) {
+            return shard.executeAsync(repositoryType, method, arguments);
+        }
+        if (Stream.class.equals(returnType)) {
+            return shard.stream(repositoryType, method, arguments);
+        }
+        return shard.executeInTransaction(repositoryType, method, arguments);
+    }
+
+    private Object scatter(
+            @NotNull Class<?> repositoryType, @NotNull Method method, Object[] arguments, @NotNull Route route) {
+        Class<?> returnType = method.getReturnType();
+        if (CompletableFuture.class.equals(returnType)
+                || Stream.class.equals(returnType)
+                || KeysetPage.class.equals(returnType)
+                || CompactResults.isCompact(returnType)) {
+            throw new MyBatisException(String.format(
+                    "Mapper method '%s' without a shard key has an unsupported return type: %s", method, returnType));
+        }
+        SqlCommandType commandType = commandTypes.computeIfAbsent(
+                method, it -> shards.values().iterator().next().getSqlCommandType(repositoryType, it));
+        if (!SqlCommandType.SELECT.equals(commandType)) {
+            throw new MyBatisException(String.format(
+                    "Mapper method '%s' without a shard key must be a select, %s across shards is not atomic.",
+                    method, commandType));
+        }
+        Log.debug(() -> String.format("Scattering '%s' to %s shards.", method.getName(), shards.size()));
+        List<CompletableFuture<Object>> futures = new ArrayList<>(shards.size());
+        for (MyBatis shard : shards.values()) {
+            futures.add(executor.submit(() -> shard.executeInTransaction(repositoryType, method, arguments)));
+        }
+        List<Object> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<Object> future : futures) {
+            results.add(join(future));
+        }
+        return merge(returnType, route.getMerge(), results);
+    }
+
+    private static Object join(@NotNull CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MyBatisException(cause);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object merge(
+            @NotNull Class<?> returnType, @Nullable ShardMerge merge, @NotNull List<Object> results) {
+        if (void.class.equals(returnType) || Void.class.equals(returnType)) {
+            return null;
+        }
+        if (int.class.equals(returnType) || Integer.class.equals(returnType)) {
+            int sum = 0;
+            for (Object result : results) {
+                sum += result == null ? 0 : (Integer) result;
+            }
+            return sum;
+        }
+        if (long.class.equals(returnType) || Long.class.equals(returnType)) {
+            long sum = 0L;
+            for (Object result : results) {
+                sum += result == null ? 0L : (Long) result;
+            }
+            return sum;
+        }
+        if (boolean.class.equals(returnType) || Boolean.class.equals(returnType)) {
+            for (Object result : results) {
+                if (Boolean.TRUE.equals(result)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Comparator<Object> comparator = merge == null || merge.orderBy().length == 0 ? null : comparator(merge);
+        int limit = merge == null || merge.limit() < 0 ? Integer.MAX_VALUE : merge.limit();
+        if (returnType.isArray() || Collection.class.isAssignableFrom(returnType)) {
+            List<List<Object>> lists = new ArrayList<>(results.size());
+            for (Object result : results) {
+                lists.add(toList(result));
+            }
+            List<Object> merged = comparator == null ? concat(lists, limit) : sortMerge(lists, comparator, limit);
+            if (returnType.isArray()) {
+                Object array = Array.newInstance(returnType.getComponentType(), merged.size());
+                for (int i = 0; i < merged.size(); i++) {
+                    Array.set(array, i, merged.get(i));
+                }
+                return array;
+            }
+            if (returnType.isAssignableFrom(ArrayList.class)) {
+                return merged;
+            }
+            Collection collection = (Collection) OBJECT_FACTORY.create(returnType);
+            collection.addAll(merged);
+            return collection;
+        }
+        boolean optional = Optional.class.equals(returnType);
+        Object found = null;
+        for (Object result : results) {
+            Object value = optional ? ((Optional<?>) result).orElse(null) : result;
+            if (value == null) {
+                continue;
+            }
+            if (found == null || comparator != null && comparator.compare(value, found) < 0) {
+                found = value;
+            } else if (comparator == null) {
+                throw new MyBatisException(
+                        "Expected one result to be returned by the shards, but found results on multiple shards.");
+            }
+        }
+        return optional ? Optional.ofNullable(found) : found;
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static List<Object> toList(Object result) {
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        if (result.getClass().isArray()) {
+            int length = Array.getLength(result);
+            List<Object> list = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                list.add(Array.get(result, i));
+            }
+            return list;
+        }
+        return result instanceof List ? (List<Object>) result : new ArrayList<>((Collection<Object>) result);
+    }
+
+    @NotNull
+    private static List<Object> concat(@NotNull List<List<Object>> lists, int limit) {
+        int size = 0;
+        for (List<Object> list : lists) {
+            size += list.size();
+        }
+        List<Object> merged = new ArrayList<>(Math.min(size, limit));
+        for (List<Object> list : lists) {
+            for (Object element : list) {
+                if (merged.size() >= limit) {
+                    return merged;
+                }
+                merged.add(element);
+            }
+        }
+        return merged;
+    }
+
+    @NotNull
+    private static List<Object> sortMerge(
+            @NotNull List<List<Object>> lists, @NotNull Comparator<Object> comparator, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(lists.size(), (left, right) -> {
+            int compared = comparator.compare(left.getValue(), right.getValue());
+            return compared != 0 ? compared : Integer.compare(left.getShard(), right.getShard());
+        });
+        int size = 0;
+        for (int i = 0; i < lists.size(); i++) {
+            List<Object> list = lists.get(i);
+            size += list.size();
+            if (!list.isEmpty()) {
+                heads.add(new Head(list, i, 0));
+            }
+        }
+        List<Object> merged = new ArrayList<>(Math.min(size, limit));
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.getValue());
+            int next = head.getIndex() + 1;
+            if (next < head.getList().size()) {
+                heads.add(new Head(head.getList(), head.getShard(), next));
+            }
+        }
+        return merged;
+    }
+
+    @NotNull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Object> comparator(@NotNull ShardMerge merge) {
+        String[] properties = merge.orderBy();
+        Comparator<Object> comparator = (left, right) -> {
+            for (String property : properties) {
+                Comparable l = (Comparable) SystemMetaObject.forObject(left).getValue(property);
+                Comparable r = (Comparable) SystemMetaObject.forObject(right).getValue(property);
+                int compared = l == null ? (r == null ? 0 : -1) : (r == null ? 1 : l.compareTo(r));
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            return 0;
+        };
+        return merge.descending() ? comparator.reversed() : comparator;
+    }
+
+    @NotNull
+    private static Route createRoute(@NotNull Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        int index = -1;
+        String property = null;
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (!(annotation instanceof ShardKey)) {
+                    continue;
+                }
+                if (index >= 0) {
+                    throw new MyBatisException(
+                            String.format("Mapper method '%s' has more than one shard key.", method));
+                }
+                index = i;
+                property = ((ShardKey) annotation).value();
+            }
+        }
+        return new Route(
+                index,
+                property == null || property.isEmpty() ? null : property,
+                method.getAnnotation(ShardMerge.class));
+    }
+
+    @Data
+    private static final class Route {
+        private final int index;
+        private final String property;
+        private final ShardMerge merge;
+
+        private Object getKey(Object[] arguments) {
+            Object argument = arguments[index];
+            if (property == null || argument == null) {
+                return argument;
+            }
+            return SystemMetaObject.forObject(argument).getValue(property);
+        }
+    }
+
+    @Data
+    private static final class Head {
+        @NonNull
+        private final List<Object> list;
+
+        private final int shard;
+        private final int index;
+
+        private Object getValue() {
+            return list.get(index);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class ShardDataSource implements DataSourceProvider {
+        @NonNull
+        private final DataSource dataSource;
+
+        @Override
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+    }
+
+    @RequiredArgsConstructor
+    public static final class ShardInterceptor {
+        @NonNull
+        private final ShardedMyBatis myBatis;
+
+        @NonNull
+        private final Class<?> repositoryType;
+
+        @RuntimeType
+        @SuppressWarnings("unused")
+        public Object intercept(@Origin Method method, @AllArguments Object[] arguments) {
+            return myBatis.execute(repositoryType, method, arguments);
+        }
+    }
+}
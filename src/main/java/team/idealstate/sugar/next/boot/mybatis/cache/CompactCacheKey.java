@@ -0,0 +1,420 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.reflection.ArrayUtil;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+public final class CompactCacheKey extends CacheKey {
+    private static final long serialVersionUID = 4190473616526532785L;
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INTEGER = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_SHORT = 4;
+    private static final byte TAG_BYTE = 5;
+    private static final byte TAG_BOOLEAN = 6;
+    private static final byte TAG_DOUBLE = 7;
+    private static final byte TAG_FLOAT = 8;
+    private static final byte TAG_CHARACTER = 9;
+    private static final byte TAG_BIG_DECIMAL = 10;
+    private static final byte TAG_BIG_INTEGER = 11;
+    private static final byte TAG_BYTES = 12;
+    private static final byte TAG_TIMESTAMP = 13;
+    private static final byte TAG_SQL_DATE = 14;
+    private static final byte TAG_SQL_TIME = 15;
+    private static final byte TAG_DATE = 16;
+    private static final byte TAG_UUID = 17;
+    private static final byte TAG_INSTANT = 18;
+    private static final byte TAG_LOCAL_DATE = 19;
+    private static final byte TAG_LOCAL_TIME = 20;
+    private static final byte TAG_LOCAL_DATE_TIME = 21;
+    private static final byte TAG_OFFSET_TIME = 22;
+    private static final byte TAG_OFFSET_DATE_TIME = 23;
+    private static final byte TAG_ZONED_DATE_TIME = 24;
+    private static final Set<Class<?>> SUPPORTED_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            String.class,
+            Integer.class,
+            Long.class,
+            Short.class,
+            Byte.class,
+            Boolean.class,
+            Double.class,
+            Float.class,
+            Character.class,
+            int.class,
+            long.class,
+            short.class,
+            byte.class,
+            boolean.class,
+            double.class,
+            float.class,
+            char.class,
+            BigDecimal.class,
+            BigInteger.class,
+            byte[].class,
+            Timestamp.class,
+            java.sql.Date.class,
+            Time.class,
+            Date.class,
+            UUID.class,
+            Instant.class,
+            LocalDate.class,
+            LocalTime.class,
+            LocalDateTime.class,
+            OffsetTime.class,
+            OffsetDateTime.class,
+            ZonedDateTime.class)));
+
+    private Object[] components;
+    private int count;
+    private long hash = FNV_OFFSET;
+
+    public CompactCacheKey() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CompactCacheKey(int capacity) {
+        Validation.is(capacity >= 0, "Capacity must be greater than or equal to 0.");
+        this.components = new Object[capacity];
+    }
+
+    @Override
+    public void update(Object object) {
+        if (count == components.length) {
+            components = Arrays.copyOf(components, Math.max(DEFAULT_CAPACITY, count << 1));
+        }
+        components[count++] = object;
+        hash = (hash ^ (ArrayUtil.hashCode(object) & 0xFFFFFFFFL)) * FNV_PRIME;
+    }
+
+    @Override
+    public int getUpdateCount() {
+        return count;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public Object getComponent(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(String.format("Index: %s, Size: %s", index, count));
+        }
+        return components[index];
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof CompactCacheKey)) {
+            return false;
+        }
+        CompactCacheKey other = (CompactCacheKey) object;
+        if (hash != other.hash || count != other.count) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!ArrayUtil.equals(components[i], other.components[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(":");
+        joiner.add(Long.toHexString(hash)).add(String.valueOf(count));
+        for (int i = 0; i < count; i++) {
+            joiner.add(ArrayUtil.toString(components[i]));
+        }
+        return joiner.toString();
+    }
+
+    @Override
+    public CompactCacheKey clone() throws CloneNotSupportedException {
+        CompactCacheKey clone = (CompactCacheKey) super.clone();
+        clone.components = Arrays.copyOf(components, count);
+        return clone;
+    }
+
+    @Nullable
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * (count + 1));
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(FORMAT_VERSION);
+            output.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                if (!write(output, components[i])) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static boolean isSupported(@NotNull Class<?> type) {
+        Validation.notNull(type, "Type must not be null.");
+        return SUPPORTED_TYPES.contains(type);
+    }
+
+    @NotNull
+    public static CompactCacheKey fromBytes(@NotNull byte[] bytes) {
+        Validation.notNull(bytes, "Bytes must not be null.");
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = input.readByte();
+            Validation.is(version == FORMAT_VERSION, String.format("Unsupported cache key format: %s", version));
+            int count = input.readInt();
+            Validation.is(count >= 0, "Malformed cache key.");
+            CompactCacheKey key = new CompactCacheKey(count);
+            for (int i = 0; i < count; i++) {
+                key.update(read(input));
+            }
+            return key;
+        } catch (IOException | DateTimeException e) {
+            throw new IllegalArgumentException("Malformed cache key.", e);
+        }
+    }
+
+    private static boolean write(@NotNull DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            output.writeByte(TAG_STRING);
+            writeBytes(output, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer) {
+            output.writeByte(TAG_INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(TAG_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            output.writeByte(TAG_SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            output.writeByte(TAG_BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(TAG_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Double) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            output.writeByte(TAG_FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Character) {
+            output.writeByte(TAG_CHARACTER);
+            output.writeChar((Character) value);
+        } else if (value.getClass() == BigDecimal.class) {
+            output.writeByte(TAG_BIG_DECIMAL);
+            output.writeInt(((BigDecimal) value).scale());
+            writeBytes(output, ((BigDecimal) value).unscaledValue().toByteArray());
+        } else if (value.getClass() == BigInteger.class) {
+            output.writeByte(TAG_BIG_INTEGER);
+            writeBytes(output, ((BigInteger) value).toByteArray());
+        } else if (value instanceof byte[]) {
+            output.writeByte(TAG_BYTES);
+            writeBytes(output, (byte[]) value);
+        } else if (value.getClass() == Timestamp.class) {
+            output.writeByte(TAG_TIMESTAMP);
+            output.writeLong(((Timestamp) value).getTime());
+            output.writeInt(((Timestamp) value).getNanos());
+        } else if (value.getClass() == java.sql.Date.class) {
+            output.writeByte(TAG_SQL_DATE);
+            output.writeLong(((java.sql.Date) value).getTime());
+        } else if (value.getClass() == Time.class) {
+            output.writeByte(TAG_SQL_TIME);
+            output.writeLong(((Time) value).getTime());
+        } else if (value.getClass() == Date.class) {
+            output.writeByte(TAG_DATE);
+            output.writeLong(((Date) value).getTime());
+        } else if (value instanceof UUID) {
+            output.writeByte(TAG_UUID);
+            output.writeLong(((UUID) value).getMostSignificantBits());
+            output.writeLong(((UUID) value).getLeastSignificantBits());
+        } else if (value instanceof Instant) {
+            output.writeByte(TAG_INSTANT);
+            output.writeLong(((Instant) value).getEpochSecond());
+            output.writeInt(((Instant) value).getNano());
+        } else if (value instanceof LocalDate) {
+            output.writeByte(TAG_LOCAL_DATE);
+            output.writeLong(((LocalDate) value).toEpochDay());
+        } else if (value instanceof LocalTime) {
+            output.writeByte(TAG_LOCAL_TIME);
+            output.writeLong(((LocalTime) value).toNanoOfDay());
+        } else if (value instanceof LocalDateTime) {
+            output.writeByte(TAG_LOCAL_DATE_TIME);
+            writeLocalDateTime(output, (LocalDateTime) value);
+        } else if (value instanceof OffsetTime) {
+            output.writeByte(TAG_OFFSET_TIME);
+            output.writeLong(((OffsetTime) value).toLocalTime().toNanoOfDay());
+            output.writeInt(((OffsetTime) value).getOffset().getTotalSeconds());
+        } else if (value instanceof OffsetDateTime) {
+            output.writeByte(TAG_OFFSET_DATE_TIME);
+            writeLocalDateTime(output, ((OffsetDateTime) value).toLocalDateTime());
+            output.writeInt(((OffsetDateTime) value).getOffset().getTotalSeconds());
+        } else if (value instanceof ZonedDateTime) {
+            output.writeByte(TAG_ZONED_DATE_TIME);
+            writeLocalDateTime(output, ((ZonedDateTime) value).toLocalDateTime());
+            output.writeInt(((ZonedDateTime) value).getOffset().getTotalSeconds());
+            writeBytes(output, ((ZonedDateTime) value).getZone().getId().getBytes(StandardCharsets.UTF_8));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static Object read(@NotNull DataInputStream input) throws IOException {
+        byte tag = input.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return new String(readBytes(input), StandardCharsets.UTF_8);
+            case TAG_INTEGER:
+                return input.readInt();
+            case TAG_LONG:
+                return input.readLong();
+            case TAG_SHORT:
+                return input.readShort();
+            case TAG_BYTE:
+                return input.readByte();
+            case TAG_BOOLEAN:
+                return input.readBoolean();
+            case TAG_DOUBLE:
+                return input.readDouble();
+            case TAG_FLOAT:
+                return input.readFloat();
+            case TAG_CHARACTER:
+                return input.readChar();
+            case TAG_BIG_DECIMAL:
+                int scale = input.readInt();
+                return new BigDecimal(new BigInteger(readBytes(input)), scale);
+            case TAG_BIG_INTEGER:
+                return new BigInteger(readBytes(input));
+            case TAG_BYTES:
+                return readBytes(input);
+            case TAG_TIMESTAMP:
+                Timestamp timestamp = new Timestamp(input.readLong());
+                timestamp.setNanos(input.readInt());
+                return timestamp;
+            case TAG_SQL_DATE:
+                return new java.sql.Date(input.readLong());
+            case TAG_SQL_TIME:
+                return new Time(input.readLong());
+            case TAG_DATE:
+                return new Date(input.readLong());
+            case TAG_UUID:
+                return new UUID(input.readLong(), input.readLong());
+            case TAG_INSTANT:
+                return Instant.ofEpochSecond(input.readLong(), input.readInt());
+            case TAG_LOCAL_DATE:
+                return LocalDate.ofEpochDay(input.readLong());
+            case TAG_LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(input.readLong());
+            case TAG_LOCAL_DATE_TIME:
+                return readLocalDateTime(input);
+            case TAG_OFFSET_TIME:
+                LocalTime time = LocalTime.ofNanoOfDay(input.readLong());
+                return OffsetTime.of(time, ZoneOffset.ofTotalSeconds(input.readInt()));
+            case TAG_OFFSET_DATE_TIME:
+                LocalDateTime dateTime = readLocalDateTime(input);
+                return OffsetDateTime.of(dateTime, ZoneOffset.ofTotalSeconds(input.readInt()));
+            case TAG_ZONED_DATE_TIME:
+                LocalDateTime zonedDateTime = readLocalDateTime(input);
+                ZoneOffset offset = ZoneOffset.ofTotalSeconds(input.readInt());
+                ZoneId zone = ZoneId.of(new String(readBytes(input), StandardCharsets.UTF_8));
+                return ZonedDateTime.ofStrict(zonedDateTime, offset, zone);
+            default:
+                throw new IOException(String.format("Unknown cache key component tag: %s", tag));
+        }
+    }
+
+    private static void writeLocalDateTime(@NotNull DataOutputStream output, @NotNull LocalDateTime value)
+            throws IOException {
+        output.writeLong(value.toLocalDate().toEpochDay());
+        output.writeLong(value.toLocalTime().toNanoOfDay());
+    }
+
+    @NotNull
+    private static LocalDateTime readLocalDateTime(@NotNull DataInputStream input) throws IOException {
+        LocalDate date = LocalDate.ofEpochDay(input.readLong());
+        return LocalDateTime.of(date, LocalTime.ofNanoOfDay(input.readLong()));
+    }
+
+    private static void writeBytes(@NotNull DataOutputStream output, @NotNull byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    @NotNull
+    private static byte[] readBytes(@NotNull DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Malformed cache key component.");
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.cache.Cache;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class NearCache implements Cache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Cache delegate;
+    private final long ttl;
+    private final Segment[] segments;
+
+    public NearCache(@NotNull Cache delegate, int size, long ttl) {
+        this.delegate = delegate;
+        this.ttl = TimeUnit.MILLISECONDS.toNanos(ttl);
+        int segmentCount = Math.min(SEGMENTS, size);
+        int segmentSize = (size + segmentCount - 1) / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public void putObject(Object key, Object value) {
+        delegate.putObject(key, value);
+        if (value == null) {
+            segment(key).remove(key);
+        } else {
+            segment(key).put(key, new Entry(value, System.nanoTime() + ttl));
+        }
+    }
+
+    @Override
+    public Object getObject(Object key) {
+        Segment segment = segment(key);
+        Entry entry = segment.get(key);
+        long now = System.nanoTime();
+        if (entry != null) {
+            if (now - entry.expiresAt < 0) {
+                return entry.value;
+            }
+            segment.remove(key, entry);
+        }
+        Object value = delegate.getObject(key);
+        if (value != null) {
+            segment.put(key, new Entry(value, now + ttl));
+        }
+        return value;
+    }
+
+    @Override
+    public Object removeObject(Object key) {
+        segment(key).remove(key);
+        return delegate.removeObject(key);
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        delegate.clear();
+    }
+
+    @Override
+    public int getSize() {
+        return delegate.getSize();
+    }
+
+    @NotNull
+    private Segment segment(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+    }
+
+    private static final class Segment {
+        private final LinkedHashMap<Object, Entry> entries;
+
+        private Segment(int size) {
+            this.entries = new LinkedHashMap<Object, Entry>(16, 0.75F, true) {
+                private static final long serialVersionUID = -4460385732518493517L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                    return size() > size;
+                }
+            };
+        }
+
+        private synchronized Entry get(Object key) {
+            return entries.get(key);
+        }
+
+        private synchronized void put(Object key, @NotNull Entry entry) {
+            entries.put(key, entry);
+        }
+
+        private synchronized void remove(Object key) {
+            entries.remove(key);
+        }
+
+        private synchronized void remove(Object key, @NotNull Entry entry) {
+            entries.remove(key, entry);
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+    }
+}
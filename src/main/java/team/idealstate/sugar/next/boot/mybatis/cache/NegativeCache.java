@@ -0,0 +1,167 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.apache.ibatis.cache.Cache;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class NegativeCache implements Cache {
+
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASHES = 5;
+
+    private final Cache delegate;
+    private final long resetInterval;
+    private final Set<Object> misses;
+    private final AtomicLongArray filter;
+    private final int filterBits;
+    private final AtomicLong nextReset;
+
+    public NegativeCache(@NotNull Cache delegate, int size, long resetInterval) {
+        this.delegate = delegate;
+        this.resetInterval = TimeUnit.SECONDS.toNanos(resetInterval);
+        this.misses = Collections.newSetFromMap(new LinkedHashMap<Object, Boolean>(16, 0.75F, true) {
+            private static final long serialVersionUID = 2286013927306874512L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Boolean> eldest) {
+                return size() > size;
+            }
+        });
+        this.filter = new AtomicLongArray(Math.max(1, (size * BITS_PER_ENTRY + 63) >>> 6));
+        this.filterBits = filter.length() << 6;
+        this.nextReset = new AtomicLong(System.nanoTime() + this.resetInterval);
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public void putObject(Object key, Object value) {
+        if (value instanceof List && ((List<?>) value).isEmpty()) {
+            resetIfRequired();
+            if (mightContain(key)) {
+                synchronized (misses) {
+                    misses.add(key);
+                }
+            } else {
+                add(key);
+            }
+            return;
+        }
+        synchronized (misses) {
+            misses.remove(key);
+        }
+        delegate.putObject(key, value);
+    }
+
+    @Override
+    public Object getObject(Object key) {
+        synchronized (misses) {
+            if (misses.contains(key)) {
+                return new ArrayList<>(0);
+            }
+        }
+        return delegate.getObject(key);
+    }
+
+    @Override
+    public Object removeObject(Object key) {
+        synchronized (misses) {
+            misses.remove(key);
+        }
+        return delegate.removeObject(key);
+    }
+
+    @Override
+    public void clear() {
+        synchronized (misses) {
+            misses.clear();
+        }
+        clearFilter();
+        delegate.clear();
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (misses) {
+            return delegate.getSize() + misses.size();
+        }
+    }
+
+    private void resetIfRequired() {
+        long now = System.nanoTime();
+        long reset = nextReset.get();
+        if (now - reset >= 0 && nextReset.compareAndSet(reset, now + resetInterval)) {
+            clearFilter();
+        }
+    }
+
+    private void clearFilter() {
+        for (int i = 0; i < filter.length(); i++) {
+            filter.set(i, 0L);
+        }
+    }
+
+    private boolean mightContain(Object key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % filterBits;
+            if ((filter.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(Object key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % filterBits;
+            int index = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = filter.get(index);
+            } while ((current & mask) == 0 && !filter.compareAndSet(index, current, current | mask));
+        }
+    }
+
+    private static long hash(Object key) {
+        if (key instanceof CompactCacheKey) {
+            return ((CompactCacheKey) key).getHash();
+        }
+        long hash = key == null ? 0 : key.hashCode();
+        hash *= 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.ibatis.cache.Cache;
+import team.idealstate.sugar.next.boot.mybatis.spi.CacheFactory;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class NegativeCacheFactory implements CacheFactory {
+
+    private static final String ALL_NAMESPACES = "*";
+
+    private final CacheFactory delegate;
+    private final Set<String> namespaces;
+    private final int size;
+    private final long resetInterval;
+
+    public NegativeCacheFactory(
+            @NotNull CacheFactory delegate, @NotNull List<String> namespaces, int size, long resetInterval) {
+        Validation.notNull(delegate, "Delegate must not be null.");
+        Validation.notNull(namespaces, "Namespaces must not be null.");
+        Validation.is(size > 0, "Size must be greater than 0.");
+        Validation.is(resetInterval > 0, "Reset interval must be greater than 0.");
+        this.delegate = delegate;
+        this.namespaces = Collections.unmodifiableSet(new LinkedHashSet<>(namespaces));
+        this.size = size;
+        this.resetInterval = resetInterval;
+    }
+
+    @NotNull
+    @Override
+    public Cache createCache(@NotNull String id, Integer expired, @NotNull Map<String, Object> properties) {
+        Cache cache = delegate.createCache(id, expired, properties);
+        Validation.notNull(cache, "Cache must not be null.");
+        if (!namespaces.contains(ALL_NAMESPACES) && !namespaces.contains(id)) {
+            return cache;
+        }
+        return new NegativeCache(cache, size, resetInterval);
+    }
+}
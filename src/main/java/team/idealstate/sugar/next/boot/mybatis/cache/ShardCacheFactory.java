@@ -0,0 +1,44 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.cache;
+
+import java.util.Map;
+import org.apache.ibatis.cache.Cache;
+import team.idealstate.sugar.next.boot.mybatis.spi.CacheFactory;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class ShardCacheFactory implements CacheFactory {
+
+    private final CacheFactory delegate;
+    private final String shard;
+
+    public ShardCacheFactory(@NotNull CacheFactory delegate, @NotNull String shard) {
+        Validation.notNull(delegate, "Delegate must not be null.");
+        Validation.notNull(shard, "Shard must not be null.");
+        this.delegate = delegate;
+        this.shard = shard;
+    }
+
+    @NotNull
+    @Override
+    public Cache createCache(@NotNull String id, Integer expired, @NotNull Map<String, Object> properties) {
+        Cache cache = delegate.createCache(shard + ":" + id, expired, properties);
+        Validation.notNull(cache, "Cache must not be null.");
+        return new ShardCache(id, cache);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ibatis.cache.Cache;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+final class SnapshotCache implements Cache {
+
+    private static final int TRACKING_FACTOR = 4;
+
+    private final Cache delegate;
+    private final SnapshotCacheFactory factory;
+    private final Path path;
+    private final long maxAge;
+    private final Map<Object, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile SnapshotFile snapshot;
+
+    SnapshotCache(
+            @NotNull Cache delegate,
+            @NotNull SnapshotCacheFactory factory,
+            @NotNull Path path,
+            @Nullable Integer expired) {
+        this.delegate = delegate;
+        this.factory = factory;
+        this.path = path;
+        this.maxAge = expired == null || expired <= 0 ? 0L : TimeUnit.SECONDS.toMillis(expired);
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public void putObject(Object key, Object value) {
+        delegate.putObject(key, value);
+        track(key, 0);
+    }
+
+    @Override
+    public Object getObject(Object key) {
+        Object value = delegate.getObject(key);
+        if (value == null && key instanceof CompactCacheKey) {
+            value = restore((CompactCacheKey) key);
+        }
+        if (value != null) {
+            track(key, 1);
+        }
+        return value;
+    }
+
+    @Override
+    public Object removeObject(Object key) {
+        SnapshotFile snapshot = this.snapshot;
+        if (snapshot != null) {
+            snapshot.remove(key);
+        }
+        hits.remove(key);
+        return delegate.removeObject(key);
+    }
+
+    @Override
+    public void clear() {
+        loaded = true;
+        snapshot = null;
+        hits.clear();
+        delegate.clear();
+    }
+
+    @Override
+    public int getSize() {
+        return delegate.getSize();
+    }
+
+    void save() {
+        List<Map.Entry<Object, AtomicInteger>> candidates = new ArrayList<>(hits.entrySet());
+        if (candidates.isEmpty()) {
+            return;
+        }
+        candidates.sort(Comparator.comparingInt(
+                (Map.Entry<Object, AtomicInteger> entry) -> entry.getValue().get())
+                .reversed());
+        int maxEntries = factory.getMaxEntries();
+        List<byte[][]> entries = new ArrayList<>(Math.min(maxEntries, candidates.size()));
+        for (Map.Entry<Object, AtomicInteger> candidate : candidates) {
+            if (entries.size() >= maxEntries) {
+                break;
+            }
+            CompactCacheKey key = (CompactCacheKey) candidate.getKey();
+            Object value = delegate.getObject(key);
+            if (value == null) {
+                hits.remove(key);
+                continue;
+            }
+            byte[] keyBytes = key.toBytes();
+            byte[] valueBytes = keyBytes == null ? null : serialize(value);
+            if (valueBytes != null) {
+                entries.add(new byte[][] {keyBytes, valueBytes});
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            SnapshotFile.write(path, factory.getFingerprint(getId()), entries);
+            Log.debug(() -> String.format("Saved %s cache entries of '%s' to snapshot.", entries.size(), getId()));
+        } catch (IOException e) {
+            Log.warn(String.format("Failed to save cache snapshot of '%s': %s", getId(), e));
+        }
+    }
+
+    @Nullable
+    private Object restore(@NotNull CompactCacheKey key) {
+        SnapshotFile snapshot = load();
+        if (snapshot == null) {
+            return null;
+        }
+        try {
+            Object value = snapshot.take(key, factory.getClassLoader());
+            if (value != null) {
+                delegate.putObject(key, value);
+            }
+            return value;
+        } catch (IOException | ClassNotFoundException e) {
+            Log.debug(() -> String.format("Discarding cache snapshot entry of '%s': %s", getId(), e));
+            return null;
+        }
+    }
+
+    @Nullable
+    private SnapshotFile load() {
+        if (loaded) {
+            SnapshotFile snapshot = this.snapshot;
+            if (snapshot != null && snapshot.isEmpty()) {
+                this.snapshot = null;
+                return null;
+            }
+            return snapshot;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                try {
+                    snapshot = SnapshotFile.read(path, factory.getFingerprint(getId()), maxAge);
+                    if (snapshot == null) {
+                        Log.debug(() -> String.format("No usable cache snapshot of '%s'.", getId()));
+                    }
+                } catch (IOException e) {
+                    Log.warn(String.format("Failed to load cache snapshot of '%s': %s", getId(), e));
+                }
+                loaded = true;
+            }
+            return snapshot;
+        }
+    }
+
+    private void track(Object key, int increment) {
+        if (!(key instanceof CompactCacheKey)) {
+            return;
+        }
+        AtomicInteger counter = hits.get(key);
+        if (counter == null) {
+            if (hits.size() >= factory.getMaxEntries() * TRACKING_FACTOR) {
+                return;
+            }
+            counter = hits.computeIfAbsent(key, it -> new AtomicInteger());
+        }
+        if (increment != 0) {
+            counter.addAndGet(increment);
+        }
+    }
+
+    @Nullable
+    private static byte[] serialize(Object value) {
+        if (!(value instanceof Serializable)) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(value);
+        } catch (NotSerializableException e) {
+            return null;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
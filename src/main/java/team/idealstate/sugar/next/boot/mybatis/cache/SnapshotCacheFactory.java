@@ -0,0 +1,166 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.cache;
+
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.Getter;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.Configuration;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.spi.CacheFactory;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class SnapshotCacheFactory implements CacheFactory {
+
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final CacheFactory delegate;
+    private final Configuration configuration;
+
+    @Getter
+    private final ClassLoader classLoader;
+
+    private final Path directory;
+
+    @Getter
+    private final int maxEntries;
+
+    private final Map<String, SnapshotCache> caches = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final ScheduledExecutorService scheduler;
+
+    public SnapshotCacheFactory(
+            @NotNull CacheFactory delegate,
+            @NotNull Configuration configuration,
+            @NotNull ClassLoader classLoader,
+            @NotNull Path directory,
+            int maxEntries,
+            int interval) {
+        Validation.notNull(delegate, "Delegate must not be null.");
+        Validation.notNull(configuration, "Configuration must not be null.");
+        Validation.notNull(classLoader, "Class loader must not be null.");
+        Validation.notNull(directory, "Directory must not be null.");
+        Validation.is(maxEntries > 0, "Max entries must be greater than 0.");
+        Validation.is(interval >= 0, "Interval must be greater than or equal to 0.");
+        this.delegate = delegate;
+        this.configuration = configuration;
+        this.classLoader = classLoader;
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        if (interval > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mybatis-cache-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::snapshot, interval, interval, TimeUnit.SECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    @NotNull
+    @Override
+    public Cache createCache(@NotNull String id, Integer expired, @NotNull Map<String, Object> properties) {
+        Cache cache = delegate.createCache(id, expired, properties);
+        Validation.notNull(cache, "Cache must not be null.");
+        SnapshotCache snapshotCache = new SnapshotCache(cache, this, directory.resolve(id + ".snapshot"), expired);
+        caches.put(id, snapshotCache);
+        return snapshotCache;
+    }
+
+    public void snapshot() {
+        for (SnapshotCache cache : caches.values()) {
+            try {
+                cache.save();
+            } catch (Throwable e) {
+                Log.warn(String.format("Failed to save cache snapshot of '%s': %s", cache.getId(), e));
+            }
+        }
+    }
+
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        snapshot();
+    }
+
+    long getFingerprint(@NotNull String namespace) {
+        long hash = mix(FNV_OFFSET, String.valueOf(SnapshotFile.VERSION));
+        hash = mix(hash, namespace);
+        String prefix = namespace + ".";
+        List<String> names = new ArrayList<>();
+        for (String name : configuration.getMappedStatementNames()) {
+            if (name.startsWith(prefix)) {
+                names.add(name);
+            }
+        }
+        Collections.sort(names);
+        for (String name : names) {
+            MappedStatement ms = configuration.getMappedStatement(name, false);
+            hash = mix(hash, name);
+            hash = mix(hash, ms.getSqlCommandType().name());
+            SqlSource sqlSource = ms.getSqlSource();
+            if (sqlSource instanceof RawSqlSource || sqlSource instanceof StaticSqlSource) {
+                hash = mix(hash, sqlSource.getBoundSql(null).getSql());
+            } else {
+                hash = mix(hash, sqlSource.getClass().getName());
+            }
+            for (ResultMap resultMap : ms.getResultMaps()) {
+                Class<?> type = resultMap.getType();
+                hash = mix(hash, type.getName());
+                if (Serializable.class.isAssignableFrom(type)) {
+                    ObjectStreamClass streamClass = ObjectStreamClass.lookup(type);
+                    if (streamClass != null) {
+                        hash = mix(hash, String.valueOf(streamClass.getSerialVersionUID()));
+                    }
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, @NotNull String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        return (hash ^ 0xFF) * FNV_PRIME;
+    }
+}
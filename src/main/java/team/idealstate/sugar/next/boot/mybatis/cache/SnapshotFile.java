@@ -0,0 +1,178 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+final class SnapshotFile {
+
+    static final int VERSION = 2;
+    private static final int MAGIC = 0x4D425343;
+    private static final int HEADER_SIZE = 28;
+
+    private final ByteBuffer buffer;
+    private final Map<CompactCacheKey, Long> index;
+
+    private SnapshotFile(@NotNull ByteBuffer buffer, @NotNull Map<CompactCacheKey, Long> index) {
+        this.buffer = buffer;
+        this.index = index;
+    }
+
+    static void write(@NotNull Path path, long fingerprint, @NotNull List<byte[][]> entries) throws IOException {
+        long size = HEADER_SIZE;
+        for (byte[][] entry : entries) {
+            size += 8L + entry[0].length + entry[1].length;
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(
+                temporary,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putLong(fingerprint);
+            buffer.putLong(System.currentTimeMillis());
+            buffer.putInt(entries.size());
+            for (byte[][] entry : entries) {
+                buffer.putInt(entry[0].length);
+                buffer.put(entry[0]);
+                buffer.putInt(entry[1].length);
+                buffer.put(entry[1]);
+            }
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Nullable
+    static SnapshotFile read(@NotNull Path path, long fingerprint, long maxAge) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        MappedByteBuffer buffer = null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    break;
+                }
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE
+                    || header.getInt() != MAGIC
+                    || header.getInt() != VERSION
+                    || header.getLong() != fingerprint) {
+                return null;
+            }
+            long savedAt = header.getLong();
+            if (maxAge <= 0 || System.currentTimeMillis() - savedAt <= maxAge) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, channel.size() - HEADER_SIZE);
+            }
+        }
+        if (buffer == null) {
+            Files.deleteIfExists(path);
+            return null;
+        }
+        int count = header.getInt();
+        if (count < 0) {
+            return null;
+        }
+        Map<CompactCacheKey, Long> index = new HashMap<>(Math.max(16, count * 2));
+        try {
+            for (int i = 0; i < count; i++) {
+                byte[] key = new byte[buffer.getInt()];
+                buffer.get(key);
+                int length = buffer.getInt();
+                int position = buffer.position();
+                if (length < 0 || length > buffer.remaining()) {
+                    return null;
+                }
+                buffer.position(position + length);
+                index.put(CompactCacheKey.fromBytes(key), ((long) position << 32) | length);
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return new SnapshotFile(buffer, index);
+    }
+
+    synchronized boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    @Nullable
+    synchronized Object take(@NotNull CompactCacheKey key, @NotNull ClassLoader classLoader)
+            throws IOException, ClassNotFoundException {
+        Long location = index.remove(key);
+        if (location == null) {
+            return null;
+        }
+        byte[] value = new byte[(int) (location & 0xFFFFFFFFL)];
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position((int) (location >>> 32));
+        duplicate.get(value);
+        try (ObjectInputStream input = new ClassLoaderObjectInputStream(new ByteArrayInputStream(value), classLoader)) {
+            return input.readObject();
+        }
+    }
+
+    synchronized void remove(@NotNull Object key) {
+        index.remove(key);
+    }
+
+    private static final class ClassLoaderObjectInputStream extends ObjectInputStream {
+        private final ClassLoader classLoader;
+
+        private ClassLoaderObjectInputStream(@NotNull InputStream input, @NotNull ClassLoader classLoader)
+                throws IOException {
+            super(input);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.codegen;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.ClassFileVersion;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.loading.MultipleParentClassLoader;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import net.bytebuddy.matcher.ElementMatchers;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+final class Bytecodes {
+
+    static final Map<Class<?>, Class<?>> WRAPPERS;
+
+    static {
+        Map<Class<?>, Class<?>> wrappers = new HashMap<>(16);
+        wrappers.put(boolean.class, Boolean.class);
+        wrappers.put(byte.class, Byte.class);
+        wrappers.put(char.class, Character.class);
+        wrappers.put(short.class, Short.class);
+        wrappers.put(int.class, Integer.class);
+        wrappers.put(long.class, Long.class);
+        wrappers.put(float.class, Float.class);
+        wrappers.put(double.class, Double.class);
+        WRAPPERS = Collections.unmodifiableMap(wrappers);
+    }
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private Bytecodes() {}
+
+    @NotNull
+    static <T> T generate(
+            @NotNull Class<?> type,
+            @NotNull Class<T> contract,
+            @NotNull String method,
+            @NotNull ByteCodeAppender appender) {
+        ClassLoader classLoader = new MultipleParentClassLoader.Builder()
+                .appendMostSpecific(type, contract)
+                .build();
+        Class<?> generated = new ByteBuddy(ClassFileVersion.JAVA_V6)
+                .subclass(Object.class)
+                .implement(contract)
+                .name(String.format(
+                        "%s$%s$%d", contract.getName(), type.getSimpleName(), COUNTER.incrementAndGet()))
+                .method(ElementMatchers.named(method))
+                .intercept(new Implementation.Simple(appender))
+                .make()
+                .load(classLoader, ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        try {
+            return contract.cast(generated.getConstructor().newInstance());
+        } catch (InstantiationException
+                | IllegalAccessException
+                | InvocationTargetException
+                | NoSuchMethodException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    static void pushInt(@NotNull MethodVisitor visitor, int value) {
+        if (value >= -1 && value <= 5) {
+            visitor.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            visitor.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            visitor.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            visitor.visitLdcInsn(value);
+        }
+    }
+
+    static void box(@NotNull MethodVisitor visitor, @NotNull Class<?> primitive) {
+        String wrapper = Type.getInternalName(WRAPPERS.get(primitive));
+        visitor.visitMethodInsn(
+                Opcodes.INVOKESTATIC,
+                wrapper,
+                "valueOf",
+                "(" + Type.getDescriptor(primitive) + ")L" + wrapper + ";",
+                false);
+    }
+
+    static void unbox(@NotNull MethodVisitor visitor, @NotNull Class<?> primitive) {
+        String wrapper = Type.getInternalName(WRAPPERS.get(primitive));
+        visitor.visitTypeInsn(Opcodes.CHECKCAST, wrapper);
+        visitor.visitMethodInsn(
+                Opcodes.INVOKEVIRTUAL,
+                wrapper,
+                primitive.getName() + "Value",
+                "()" + Type.getDescriptor(primitive),
+                false);
+    }
+
+    static void pop(@NotNull MethodVisitor visitor, @NotNull Class<?> type) {
+        if (type == long.class || type == double.class) {
+            visitor.visitInsn(Opcodes.POP2);
+        } else if (type != void.class) {
+            visitor.visitInsn(Opcodes.POP);
+        }
+    }
+
+    static boolean visitFrame(@NotNull MethodVisitor visitor, boolean framed, @NotNull Object... appended) {
+        if (framed) {
+            visitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        } else {
+            visitor.visitFrame(Opcodes.F_APPEND, appended.length, appended, 0, null);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.codegen;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.BooleanTypeHandler;
+import org.apache.ibatis.type.ByteTypeHandler;
+import org.apache.ibatis.type.DoubleTypeHandler;
+import org.apache.ibatis.type.FloatTypeHandler;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.LongTypeHandler;
+import org.apache.ibatis.type.ShortTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.UnknownTypeHandler;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.boot.mybatis.plugin.Plugins;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+@Intercepts({
+    @Signature(
+            type = ParameterHandler.class,
+            method = "setParameters",
+            args = {PreparedStatement.class})
+})
+final class GeneratedParameterBindingInterceptor implements Interceptor {
+
+    private static final Binding UNSUPPORTED = new Binding(null, null, null);
+    private static final Map<Class<?>, Class<?>> PRIMITIVE_TYPE_HANDLERS;
+    private static final Map<Class<?>, Method> PRIMITIVE_SETTERS;
+    private static final Field MAPPED_STATEMENT_FIELD;
+    private static final Field BOUND_SQL_FIELD;
+
+    static {
+        Map<Class<?>, Class<?>> typeHandlers = new HashMap<>(16);
+        typeHandlers.put(boolean.class, BooleanTypeHandler.class);
+        typeHandlers.put(byte.class, ByteTypeHandler.class);
+        typeHandlers.put(short.class, ShortTypeHandler.class);
+        typeHandlers.put(int.class, IntegerTypeHandler.class);
+        typeHandlers.put(long.class, LongTypeHandler.class);
+        typeHandlers.put(float.class, FloatTypeHandler.class);
+        typeHandlers.put(double.class, DoubleTypeHandler.class);
+        PRIMITIVE_TYPE_HANDLERS = Collections.unmodifiableMap(typeHandlers);
+        try {
+            Map<Class<?>, Method> setters = new HashMap<>(16);
+            setters.put(boolean.class, PreparedStatement.class.getMethod("setBoolean", int.class, boolean.class));
+            setters.put(byte.class, PreparedStatement.class.getMethod("setByte", int.class, byte.class));
+            setters.put(short.class, PreparedStatement.class.getMethod("setShort", int.class, short.class));
+            setters.put(int.class, PreparedStatement.class.getMethod("setInt", int.class, int.class));
+            setters.put(long.class, PreparedStatement.class.getMethod("setLong", int.class, long.class));
+            setters.put(float.class, PreparedStatement.class.getMethod("setFloat", int.class, float.class));
+            setters.put(double.class, PreparedStatement.class.getMethod("setDouble", int.class, double.class));
+            PRIMITIVE_SETTERS = Collections.unmodifiableMap(setters);
+            MAPPED_STATEMENT_FIELD = DefaultParameterHandler.class.getDeclaredField("mappedStatement");
+            MAPPED_STATEMENT_FIELD.setAccessible(true);
+            BOUND_SQL_FIELD = DefaultParameterHandler.class.getDeclaredField("boundSql");
+            BOUND_SQL_FIELD.setAccessible(true);
+        } catch (NoSuchMethodException | NoSuchFieldException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    private final Configuration configuration;
+    private final ParameterBinderGenerator generator = new ParameterBinderGenerator();
+    private final Map<List<Object>, Binding> bindings = new ConcurrentHashMap<>();
+
+    GeneratedParameterBindingInterceptor(@NotNull Configuration configuration) {
+        Validation.notNull(configuration, "Configuration must not be null.");
+        this.configuration = configuration;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object handler = Plugins.unwrap(invocation.getTarget());
+        if (!(handler instanceof DefaultParameterHandler)) {
+            return invocation.proceed();
+        }
+        MappedStatement ms = (MappedStatement) MAPPED_STATEMENT_FIELD.get(handler);
+        SqlSource sqlSource = ms.getSqlSource();
+        Object parameter = ((DefaultParameterHandler) handler).getParameterObject();
+        if (parameter == null
+                || ms.getStatementType() != StatementType.PREPARED
+                || !(sqlSource instanceof RawSqlSource || sqlSource instanceof StaticSqlSource)) {
+            return invocation.proceed();
+        }
+        List<Object> key = Arrays.asList(ms, parameter.getClass());
+        Binding binding = bindings.get(key);
+        if (binding == null) {
+            binding = createBinding(ms, (BoundSql) BOUND_SQL_FIELD.get(handler), parameter);
+            Binding previous = bindings.putIfAbsent(key, binding);
+            if (previous != null) {
+                binding = previous;
+            }
+        }
+        if (binding == UNSUPPORTED) {
+            return invocation.proceed();
+        }
+        binding.bind((PreparedStatement) invocation.getArgs()[0], parameter);
+        return null;
+    }
+
+    @NotNull
+    private Binding createBinding(@NotNull MappedStatement ms, @NotNull BoundSql boundSql, @NotNull Object parameter) {
+        Class<?> type = parameter.getClass();
+        boolean self = configuration.getTypeHandlerRegistry().hasTypeHandler(type);
+        boolean map = !self && parameter instanceof Map;
+        if (!self && !map && !Modifier.isPublic(type.getModifiers())) {
+            return unsupported(ms, "parameter type is not public");
+        }
+        MetaClass metaClass = self || map ? null : MetaClass.forClass(type, configuration.getReflectorFactory());
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        List<ParameterBinderGenerator.Accessor> accessors = new ArrayList<>(mappings.size());
+        TypeHandler<?>[] typeHandlers = new TypeHandler<?>[mappings.size()];
+        JdbcType[] jdbcTypes = new JdbcType[mappings.size() * 2];
+        for (int i = 0; i < mappings.size(); i++) {
+            ParameterMapping mapping = mappings.get(i);
+            String property = mapping.getProperty();
+            if (mapping.getMode() != ParameterMode.IN || boundSql.hasAdditionalParameter(property)) {
+                return unsupported(ms, property);
+            }
+            JdbcType jdbcType = mapping.getJdbcType();
+            typeHandlers[i] = mapping.getTypeHandler();
+            jdbcTypes[i * 2] = jdbcType;
+            jdbcTypes[i * 2 + 1] = jdbcType == null ? configuration.getJdbcTypeForNull() : jdbcType;
+            if (self) {
+                accessors.add(ParameterBinderGenerator.Accessor.self());
+                continue;
+            }
+            if (property.indexOf('.') >= 0 || property.indexOf('[') >= 0) {
+                return unsupported(ms, property);
+            }
+            if (map) {
+                accessors.add(ParameterBinderGenerator.Accessor.map(property));
+                continue;
+            }
+            Method getter = findGetter(type, metaClass, property);
+            if (getter == null) {
+                return unsupported(ms, property);
+            }
+            accessors.add(ParameterBinderGenerator.Accessor.getter(
+                    getter, getPrimitiveSetter(getter.getReturnType(), mapping)));
+        }
+        return new Binding(generator.generate(type, accessors), typeHandlers, jdbcTypes);
+    }
+
+    @Nullable
+    private Method getPrimitiveSetter(@NotNull Class<?> type, @NotNull ParameterMapping mapping) {
+        Class<?> expected = PRIMITIVE_TYPE_HANDLERS.get(type);
+        if (expected == null) {
+            return null;
+        }
+        TypeHandler<?> typeHandler = mapping.getTypeHandler();
+        if (typeHandler instanceof UnknownTypeHandler) {
+            typeHandler = configuration
+                    .getTypeHandlerRegistry()
+                    .getTypeHandler(Bytecodes.WRAPPERS.get(type), mapping.getJdbcType());
+        }
+        return typeHandler != null && typeHandler.getClass() == expected ? PRIMITIVE_SETTERS.get(type) : null;
+    }
+
+    @NotNull
+    private static Binding unsupported(@NotNull MappedStatement ms, @NotNull String reason) {
+        Log.debug(() -> String.format(
+                "Statement '%s' is not supported by generated parameter binders: %s", ms.getId(), reason));
+        return UNSUPPORTED;
+    }
+
+    @Nullable
+    private static Method findGetter(@NotNull Class<?> type, @NotNull MetaClass metaClass, @NotNull String property) {
+        if (!metaClass.hasGetter(property)) {
+            return null;
+        }
+        Class<?> propertyType = metaClass.getGetterType(property);
+        for (Method method : type.getMethods()) {
+            if (method.getParameterCount() != 0
+                    || Modifier.isStatic(method.getModifiers())
+                    || method.isBridge()
+                    || !PropertyNamer.isGetter(method.getName())
+                    || method.getReturnType() != propertyType) {
+                continue;
+            }
+            if (property.equals(PropertyNamer.methodToProperty(method.getName()))) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Binding {
+        private final ParameterBinder binder;
+        private final TypeHandler<?>[] typeHandlers;
+        private final JdbcType[] jdbcTypes;
+
+        private void bind(@NotNull PreparedStatement statement, @NotNull Object parameter) throws SQLException {
+            binder.bind(statement, parameter, typeHandlers, jdbcTypes);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.codegen;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.session.AutoMappingBehavior;
+import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.boot.mybatis.plugin.Plugins;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+@Intercepts({
+    @Signature(
+            type = ResultSetHandler.class,
+            method = "handleResultSets",
+            args = {Statement.class})
+})
+final class GeneratedResultMappingInterceptor implements Interceptor {
+
+    private static final MappingPlan UNSUPPORTED = new MappingPlan(null, null, null);
+    private static final Field MAPPED_STATEMENT_FIELD;
+    private static final Field ROW_BOUNDS_FIELD;
+    private static final Field RESULT_HANDLER_FIELD;
+
+    static {
+        try {
+            MAPPED_STATEMENT_FIELD = DefaultResultSetHandler.class.getDeclaredField("mappedStatement");
+            MAPPED_STATEMENT_FIELD.setAccessible(true);
+            ROW_BOUNDS_FIELD = DefaultResultSetHandler.class.getDeclaredField("rowBounds");
+            ROW_BOUNDS_FIELD.setAccessible(true);
+            RESULT_HANDLER_FIELD = DefaultResultSetHandler.class.getDeclaredField("resultHandler");
+            RESULT_HANDLER_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    private final Configuration configuration;
+    private final RowMapperGenerator generator = new RowMapperGenerator();
+    private final Map<List<Object>, MappingPlan> plans = new ConcurrentHashMap<>();
+    private final Set<String> unsupported = ConcurrentHashMap.newKeySet();
+
+    GeneratedResultMappingInterceptor(@NotNull Configuration configuration) {
+        Validation.notNull(configuration, "Configuration must not be null.");
+        this.configuration = configuration;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object handler = Plugins.unwrap(invocation.getTarget());
+        if (!(handler instanceof DefaultResultSetHandler)) {
+            return invocation.proceed();
+        }
+        MappedStatement ms = (MappedStatement) MAPPED_STATEMENT_FIELD.get(handler);
+        RowBounds rowBounds = (RowBounds) ROW_BOUNDS_FIELD.get(handler);
+        if (ms.getResultSets() != null
+                || ms.getResultMaps().size() != 1
+                || rowBounds.getClass() != RowBounds.class
+                || rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET
+                || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT
+                || RESULT_HANDLER_FIELD.get(handler) != null) {
+            return invocation.proceed();
+        }
+        ResultMap resultMap = ms.getResultMaps().get(0);
+        if (unsupported.contains(resultMap.getId())) {
+            return invocation.proceed();
+        }
+        String reason = getUnsupportedReason(resultMap);
+        if (reason != null) {
+            unsupported.add(resultMap.getId());
+            Log.debug(() -> String.format(
+                    "Result map '%s' is not supported by generated result mappers: %s", resultMap.getId(), reason));
+            return invocation.proceed();
+        }
+        Statement statement = (Statement) invocation.getArgs()[0];
+        ResultSet resultSet = statement.getResultSet();
+        if (resultSet == null) {
+            return invocation.proceed();
+        }
+        ResultSetWrapper wrapper = new ResultSetWrapper(resultSet, configuration);
+        List<Object> key = Arrays.asList(
+                resultMap, wrapper.getColumnNames(), wrapper.getClassNames(), wrapper.getJdbcTypes());
+        MappingPlan plan = plans.get(key);
+        if (plan == null) {
+            plan = createPlan(resultMap, wrapper);
+            MappingPlan previous = plans.putIfAbsent(key, plan);
+            if (previous != null) {
+                plan = previous;
+            }
+        }
+        if (plan == UNSUPPORTED) {
+            return invocation.proceed();
+        }
+        List<Object> rows = new ArrayList<>();
+        try {
+            while (resultSet.next()) {
+                rows.add(plan.map(resultSet));
+            }
+        } finally {
+            resultSet.close();
+        }
+        return rows;
+    }
+
+    @Nullable
+    private String getUnsupportedReason(@NotNull ResultMap resultMap) {
+        if (resultMap.hasNestedResultMaps() || resultMap.hasNestedQueries()) {
+            return "nested mappings";
+        }
+        if (resultMap.getDiscriminator() != null) {
+            return "discriminator";
+        }
+        if (!resultMap.getConstructorResultMappings().isEmpty()) {
+            return "constructor mappings";
+        }
+        if (configuration.getObjectFactory().getClass() != DefaultObjectFactory.class
+                || configuration.getObjectWrapperFactory().getClass() != DefaultObjectWrapperFactory.class) {
+            return "custom object factory";
+        }
+        if (configuration.isCallSettersOnNulls() || configuration.isReturnInstanceForEmptyRow()) {
+            return "null handling settings";
+        }
+        Class<?> type = resultMap.getType();
+        if (configuration.getTypeHandlerRegistry().hasTypeHandler(type)) {
+            return "single column result";
+        }
+        int modifiers = type.getModifiers();
+        if (!Modifier.isPublic(modifiers)
+                || Modifier.isAbstract(modifiers)
+                || type.isInterface()
+                || Map.class.isAssignableFrom(type)
+                || Collection.class.isAssignableFrom(type)) {
+            return "result type is not a public concrete bean";
+        }
+        try {
+            type.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return "result type has no public default constructor";
+        }
+        for (ResultMapping mapping : resultMap.getPropertyResultMappings()) {
+            if (mapping.getColumn() == null || mapping.isCompositeResult() || mapping.getResultSet() != null) {
+                return String.format("property mapping '%s'", mapping.getProperty());
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    private MappingPlan createPlan(@NotNull ResultMap resultMap, @NotNull ResultSetWrapper wrapper)
+            throws SQLException {
+        Class<?> type = resultMap.getType();
+        MetaClass metaClass = MetaClass.forClass(type, configuration.getReflectorFactory());
+        List<String> columns = new ArrayList<>();
+        List<TypeHandler<?>> typeHandlers = new ArrayList<>();
+        List<Method> setters = new ArrayList<>();
+        List<String> mappedColumns = wrapper.getMappedColumnNames(resultMap, null);
+        for (ResultMapping mapping : resultMap.getPropertyResultMappings()) {
+            String column = mapping.getColumn();
+            if (!mappedColumns.contains(column.toUpperCase(Locale.ENGLISH))) {
+                continue;
+            }
+            Method setter = findSetter(type, metaClass, mapping.getProperty());
+            if (setter == null) {
+                return unsupported(resultMap, mapping.getProperty());
+            }
+            columns.add(column);
+            typeHandlers.add(mapping.getTypeHandler());
+            setters.add(setter);
+        }
+        if (isAutoMapping(resultMap)) {
+            TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+            boolean strict =
+                    configuration.getAutoMappingUnknownColumnBehavior() != AutoMappingUnknownColumnBehavior.NONE;
+            for (String column : wrapper.getUnmappedColumnNames(resultMap, null)) {
+                String property = metaClass.findProperty(column, configuration.isMapUnderscoreToCamelCase());
+                if (property == null || !metaClass.hasSetter(property)) {
+                    if (strict) {
+                        return unsupported(resultMap, column);
+                    }
+                    continue;
+                }
+                if (resultMap.getMappedProperties().contains(property)) {
+                    continue;
+                }
+                Class<?> propertyType = metaClass.getSetterType(property);
+                if (!typeHandlerRegistry.hasTypeHandler(propertyType, wrapper.getJdbcType(column))) {
+                    if (strict) {
+                        return unsupported(resultMap, column);
+                    }
+                    continue;
+                }
+                Method setter = findSetter(type, metaClass, property);
+                if (setter == null) {
+                    return unsupported(resultMap, property);
+                }
+                columns.add(column);
+                typeHandlers.add(wrapper.getTypeHandler(propertyType, column));
+                setters.add(setter);
+            }
+        }
+        return new MappingPlan(
+                generator.generate(type, setters),
+                typeHandlers.toArray(new TypeHandler<?>[0]),
+                columns.toArray(new String[0]));
+    }
+
+    private boolean isAutoMapping(@NotNull ResultMap resultMap) {
+        Boolean autoMapping = resultMap.getAutoMapping();
+        if (autoMapping != null) {
+            return autoMapping;
+        }
+        return configuration.getAutoMappingBehavior() != AutoMappingBehavior.NONE;
+    }
+
+    @NotNull
+    private static MappingPlan unsupported(@NotNull ResultMap resultMap, @NotNull String property) {
+        Log.debug(() -> String.format(
+                "Result map '%s' is not supported by generated result mappers: property '%s'",
+                resultMap.getId(), property));
+        return UNSUPPORTED;
+    }
+
+    @Nullable
+    private static Method findSetter(@NotNull Class<?> type, @NotNull MetaClass metaClass, @NotNull String property) {
+        if (property.indexOf('.') >= 0 || property.indexOf('[') >= 0 || !metaClass.hasSetter(property)) {
+            return null;
+        }
+        Class<?> propertyType = metaClass.getSetterType(property);
+        for (Method method : type.getMethods()) {
+            if (method.getParameterCount() != 1
+                    || Modifier.isStatic(method.getModifiers())
+                    || method.isBridge()
+                    || !PropertyNamer.isSetter(method.getName())
+                    || method.getParameterTypes()[0] != propertyType) {
+                continue;
+            }
+            if (property.equals(PropertyNamer.methodToProperty(method.getName()))) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    @RequiredArgsConstructor
+    private static final class MappingPlan {
+        private final RowMapper mapper;
+        private final TypeHandler<?>[] typeHandlers;
+        private final String[] columns;
+
+        private Object map(@NotNull ResultSet resultSet) throws SQLException {
+            return mapper.map(resultSet, typeHandlers, columns);
+        }
+    }
+}
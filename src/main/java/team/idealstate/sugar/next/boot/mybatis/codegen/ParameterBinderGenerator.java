@@ -0,0 +1,182 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.codegen;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+final class ParameterBinderGenerator {
+
+    static final int ACCESS_SELF = 0;
+    static final int ACCESS_MAP = 1;
+    static final int ACCESS_GETTER = 2;
+
+    private final Map<List<Object>, ParameterBinder> binders = new ConcurrentHashMap<>();
+
+    @NotNull
+    ParameterBinder generate(@NotNull Class<?> type, @NotNull List<Accessor> accessors) {
+        List<Object> key = new ArrayList<>(accessors.size() + 1);
+        key.add(type);
+        key.addAll(accessors);
+        return binders.computeIfAbsent(
+                key,
+                it -> Bytecodes.generate(type, ParameterBinder.class, "bind", new BindAppender(type, accessors)));
+    }
+
+    @Data
+    static final class Accessor {
+        private final int access;
+        private final String property;
+        private final Method getter;
+        private final Method setter;
+
+        @NotNull
+        static Accessor self() {
+            return new Accessor(ACCESS_SELF, null, null, null);
+        }
+
+        @NotNull
+        static Accessor map(@NotNull String property) {
+            return new Accessor(ACCESS_MAP, property, null, null);
+        }
+
+        @NotNull
+        static Accessor getter(@NotNull Method getter, @Nullable Method setter) {
+            return new Accessor(ACCESS_GETTER, null, getter, setter);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class BindAppender implements ByteCodeAppender {
+        private static final int STATEMENT = 1;
+        private static final int PARAMETER = 2;
+        private static final int TYPE_HANDLERS = 3;
+        private static final int JDBC_TYPES = 4;
+        private static final int VALUE = 5;
+        private static final int JDBC_TYPE = 6;
+
+        private final Class<?> type;
+        private final List<Accessor> accessors;
+
+        @Override
+        public Size apply(
+                MethodVisitor visitor, Implementation.Context context, MethodDescription instrumentedMethod) {
+            String owner = Type.getInternalName(type);
+            String jdbcType = Type.getInternalName(JdbcType.class);
+            visitor.visitInsn(Opcodes.ACONST_NULL);
+            visitor.visitVarInsn(Opcodes.ASTORE, VALUE);
+            visitor.visitInsn(Opcodes.ACONST_NULL);
+            visitor.visitVarInsn(Opcodes.ASTORE, JDBC_TYPE);
+            boolean framed = false;
+            for (int i = 0; i < accessors.size(); i++) {
+                Accessor accessor = accessors.get(i);
+                Method getter = accessor.getGetter();
+                Method setter = accessor.getSetter();
+                if (setter != null) {
+                    visitor.visitVarInsn(Opcodes.ALOAD, STATEMENT);
+                    Bytecodes.pushInt(visitor, i + 1);
+                    visitor.visitVarInsn(Opcodes.ALOAD, PARAMETER);
+                    visitor.visitTypeInsn(Opcodes.CHECKCAST, owner);
+                    visitor.visitMethodInsn(
+                            Opcodes.INVOKEVIRTUAL, owner, getter.getName(), Type.getMethodDescriptor(getter), false);
+                    visitor.visitMethodInsn(
+                            Opcodes.INVOKEINTERFACE,
+                            Type.getInternalName(PreparedStatement.class),
+                            setter.getName(),
+                            Type.getMethodDescriptor(setter),
+                            true);
+                    continue;
+                }
+                switch (accessor.getAccess()) {
+                    case ACCESS_SELF:
+                        visitor.visitVarInsn(Opcodes.ALOAD, PARAMETER);
+                        break;
+                    case ACCESS_MAP:
+                        visitor.visitVarInsn(Opcodes.ALOAD, PARAMETER);
+                        visitor.visitTypeInsn(Opcodes.CHECKCAST, "java/util/Map");
+                        visitor.visitLdcInsn(accessor.getProperty());
+                        visitor.visitMethodInsn(
+                                Opcodes.INVOKEINTERFACE,
+                                "java/util/Map",
+                                "get",
+                                "(Ljava/lang/Object;)Ljava/lang/Object;",
+                                true);
+                        break;
+                    default:
+                        visitor.visitVarInsn(Opcodes.ALOAD, PARAMETER);
+                        visitor.visitTypeInsn(Opcodes.CHECKCAST, owner);
+                        visitor.visitMethodInsn(
+                                Opcodes.INVOKEVIRTUAL,
+                                owner,
+                                getter.getName(),
+                                Type.getMethodDescriptor(getter),
+                                false);
+                        if (getter.getReturnType().isPrimitive()) {
+                            Bytecodes.box(visitor, getter.getReturnType());
+                        }
+                        break;
+                }
+                Label nonNull = new Label();
+                visitor.visitVarInsn(Opcodes.ASTORE, VALUE);
+                visitor.visitVarInsn(Opcodes.ALOAD, JDBC_TYPES);
+                Bytecodes.pushInt(visitor, i * 2);
+                visitor.visitInsn(Opcodes.AALOAD);
+                visitor.visitVarInsn(Opcodes.ASTORE, JDBC_TYPE);
+                visitor.visitVarInsn(Opcodes.ALOAD, VALUE);
+                visitor.visitJumpInsn(Opcodes.IFNONNULL, nonNull);
+                visitor.visitVarInsn(Opcodes.ALOAD, JDBC_TYPES);
+                Bytecodes.pushInt(visitor, i * 2 + 1);
+                visitor.visitInsn(Opcodes.AALOAD);
+                visitor.visitVarInsn(Opcodes.ASTORE, JDBC_TYPE);
+                visitor.visitLabel(nonNull);
+                framed = Bytecodes.visitFrame(visitor, framed, "java/lang/Object", jdbcType);
+                visitor.visitVarInsn(Opcodes.ALOAD, TYPE_HANDLERS);
+                Bytecodes.pushInt(visitor, i);
+                visitor.visitInsn(Opcodes.AALOAD);
+                visitor.visitVarInsn(Opcodes.ALOAD, STATEMENT);
+                Bytecodes.pushInt(visitor, i + 1);
+                visitor.visitVarInsn(Opcodes.ALOAD, VALUE);
+                visitor.visitVarInsn(Opcodes.ALOAD, JDBC_TYPE);
+                visitor.visitMethodInsn(
+                        Opcodes.INVOKEINTERFACE,
+                        Type.getInternalName(TypeHandler.class),
+                        "setParameter",
+                        "(Ljava/sql/PreparedStatement;ILjava/lang/Object;L" + jdbcType + ";)V",
+                        true);
+            }
+            visitor.visitInsn(Opcodes.RETURN);
+            return new Size(6, JDBC_TYPE + 1);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.codegen;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+import org.apache.ibatis.type.TypeHandler;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+final class RowMapperGenerator {
+
+    private final Map<List<Object>, RowMapper> mappers = new ConcurrentHashMap<>();
+
+    @NotNull
+    RowMapper generate(@NotNull Class<?> type, @NotNull List<Method> setters) {
+        List<Object> key = new ArrayList<>(setters.size() + 1);
+        key.add(type);
+        key.addAll(setters);
+        return mappers.computeIfAbsent(
+                key, it -> Bytecodes.generate(type, RowMapper.class, "map", new MapAppender(type, setters)));
+    }
+
+    @RequiredArgsConstructor
+    private static final class MapAppender implements ByteCodeAppender {
+        private static final int RESULT_SET = 1;
+        private static final int TYPE_HANDLERS = 2;
+        private static final int COLUMNS = 3;
+        private static final int TARGET = 4;
+        private static final int FOUND = 5;
+        private static final int VALUE = 6;
+
+        private final Class<?> type;
+        private final List<Method> setters;
+
+        @Override
+        public Size apply(
+                MethodVisitor visitor, Implementation.Context context, MethodDescription instrumentedMethod) {
+            String target = Type.getInternalName(type);
+            visitor.visitTypeInsn(Opcodes.NEW, target);
+            visitor.visitInsn(Opcodes.DUP);
+            visitor.visitMethodInsn(Opcodes.INVOKESPECIAL, target, "<init>", "()V", false);
+            visitor.visitVarInsn(Opcodes.ASTORE, TARGET);
+            visitor.visitInsn(Opcodes.ICONST_0);
+            visitor.visitVarInsn(Opcodes.ISTORE, FOUND);
+            visitor.visitInsn(Opcodes.ACONST_NULL);
+            visitor.visitVarInsn(Opcodes.ASTORE, VALUE);
+            boolean framed = false;
+            for (int i = 0; i < setters.size(); i++) {
+                Method setter = setters.get(i);
+                Class<?> parameterType = setter.getParameterTypes()[0];
+                Label skip = new Label();
+                visitor.visitVarInsn(Opcodes.ALOAD, TYPE_HANDLERS);
+                Bytecodes.pushInt(visitor, i);
+                visitor.visitInsn(Opcodes.AALOAD);
+                visitor.visitVarInsn(Opcodes.ALOAD, RESULT_SET);
+                visitor.visitVarInsn(Opcodes.ALOAD, COLUMNS);
+                Bytecodes.pushInt(visitor, i);
+                visitor.visitInsn(Opcodes.AALOAD);
+                visitor.visitMethodInsn(
+                        Opcodes.INVOKEINTERFACE,
+                        Type.getInternalName(TypeHandler.class),
+                        "getResult",
+                        "(Ljava/sql/ResultSet;Ljava/lang/String;)Ljava/lang/Object;",
+                        true);
+                visitor.visitVarInsn(Opcodes.ASTORE, VALUE);
+                visitor.visitVarInsn(Opcodes.ALOAD, VALUE);
+                visitor.visitJumpInsn(Opcodes.IFNULL, skip);
+                visitor.visitInsn(Opcodes.ICONST_1);
+                visitor.visitVarInsn(Opcodes.ISTORE, FOUND);
+                visitor.visitVarInsn(Opcodes.ALOAD, TARGET);
+                visitor.visitVarInsn(Opcodes.ALOAD, VALUE);
+                if (parameterType.isPrimitive()) {
+                    Bytecodes.unbox(visitor, parameterType);
+                } else {
+                    visitor.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(parameterType));
+                }
+                visitor.visitMethodInsn(
+                        Opcodes.INVOKEVIRTUAL, target, setter.getName(), Type.getMethodDescriptor(setter), false);
+                Bytecodes.pop(visitor, setter.getReturnType());
+                visitor.visitLabel(skip);
+                framed = Bytecodes.visitFrame(visitor, framed, target, Opcodes.INTEGER, "java/lang/Object");
+            }
+            Label found = new Label();
+            visitor.visitVarInsn(Opcodes.ILOAD, FOUND);
+            visitor.visitJumpInsn(Opcodes.IFNE, found);
+            visitor.visitInsn(Opcodes.ACONST_NULL);
+            visitor.visitInsn(Opcodes.ARETURN);
+            visitor.visitLabel(found);
+            Bytecodes.visitFrame(visitor, framed, target, Opcodes.INTEGER, "java/lang/Object");
+            visitor.visitVarInsn(Opcodes.ALOAD, TARGET);
+            visitor.visitInsn(Opcodes.ARETURN);
+            return new Size(6, VALUE + 1);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.concurrent;
+
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import team.idealstate.sugar.next.boot.mybatis.metrics.MyBatisMetrics;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class AdaptiveLimiter {
+
+    private static final int PROBE_INTERVAL = 1000;
+    private static final double BACKOFF_RATIO = 0.9D;
+
+    private final MyBatisMetrics metrics;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long maxWait;
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveLimiter(
+            @NotNull MyBatisMetrics metrics, int initialLimit, int minLimit, int maxLimit, long maxWait) {
+        Validation.notNull(metrics, "Metrics must not be null.");
+        Validation.is(minLimit > 0, "Min limit must be greater than 0.");
+        Validation.is(maxLimit >= minLimit, "Max limit must not be less than min limit.");
+        Validation.is(
+                initialLimit >= minLimit && initialLimit <= maxLimit,
+                "Initial limit must be between min limit and max limit.");
+        Validation.is(maxWait >= 0, "Max wait must not be negative.");
+        this.metrics = metrics;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxWait = TimeUnit.MILLISECONDS.toNanos(maxWait);
+    }
+
+    @NotNull
+    public Permit acquire(@NotNull String key) {
+        Validation.notNull(key, "Key must not be null.");
+        Limit limit = limits.computeIfAbsent(key, this::createLimit);
+        limit.acquire();
+        return new Permit(limit, System.nanoTime());
+    }
+
+    public static boolean isDropped(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTimeoutException || cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    private Limit createLimit(@NotNull String key) {
+        Limit limit = new Limit(key, initialLimit);
+        metrics.gauge("limiter." + key + ".limit", () -> (long) limit.limit);
+        metrics.gauge("limiter." + key + ".inflight", () -> limit.inflight);
+        metrics.gauge("limiter." + key + ".waiting", () -> limit.waiting);
+        return limit;
+    }
+
+    public static final class Permit {
+        private final Limit limit;
+        private final long start;
+        private boolean released;
+
+        private Permit(@NotNull Limit limit, long start) {
+            this.limit = limit;
+            this.start = start;
+        }
+
+        public void release(boolean dropped) {
+            if (released) {
+                return;
+            }
+            released = true;
+            limit.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private final class Limit {
+        private final String key;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition available = lock.newCondition();
+        private volatile double limit;
+        private volatile int inflight;
+        private volatile int waiting;
+        private long minRtt = Long.MAX_VALUE;
+        private int samples;
+
+        private Limit(@NotNull String key, int limit) {
+            this.key = key;
+            this.limit = limit;
+        }
+
+        private void acquire() {
+            lock.lock();
+            try {
+                if (inflight < (int) limit) {
+                    inflight++;
+                    return;
+                }
+                long remaining = maxWait;
+                waiting++;
+                try {
+                    while (inflight >= (int) limit) {
+                        if (remaining <= 0L) {
+                            throw reject();
+                        }
+                        try {
+                            remaining = available.awaitNanos(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw reject();
+                        }
+                    }
+                    inflight++;
+                } finally {
+                    waiting--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @NotNull
+        private RejectedExecutionException reject() {
+            metrics.increment("limiter." + key + ".rejected");
+            return new RejectedExecutionException(String.format(
+                    "Concurrency limit of '%s' is exceeded, no permit acquired in %sms.",
+                    key, TimeUnit.NANOSECONDS.toMillis(maxWait)));
+        }
+
+        private void release(long rtt, boolean dropped) {
+            lock.lock();
+            try {
+                int inflight = this.inflight--;
+                if (dropped) {
+                    metrics.increment("limiter." + key + ".dropped");
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                } else {
+                    update(rtt, inflight);
+                }
+                for (int free = (int) limit - this.inflight; free > 0 && waiting > 0; free--) {
+                    available.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void update(long rtt, int inflight) {
+            if (++samples >= PROBE_INTERVAL) {
+                samples = 0;
+                minRtt = rtt;
+                return;
+            }
+            if (rtt < minRtt) {
+                minRtt = rtt;
+                return;
+            }
+            double limit = this.limit;
+            if (inflight * 2 < limit) {
+                return;
+            }
+            double queue = Math.ceil(limit * (1.0D - (double) minRtt / Math.max(rtt, 1L)));
+            double step = Math.max(1.0D, Math.log10(limit));
+            if (queue <= 3.0D * step) {
+                limit += step;
+            } else if (queue >= 6.0D * step) {
+                limit -= step;
+            } else {
+                return;
+            }
+            this.limit = Math.max(minLimit, Math.min(maxLimit, limit));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class DatabaseExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long timeout;
+
+    public DatabaseExecutor(int concurrency, long timeout) {
+        Validation.is(concurrency > 0, "Concurrency must be greater than 0.");
+        Validation.is(timeout >= 0, "Timeout must not be negative.");
+        this.executor = createExecutor(concurrency);
+        this.permits = new Semaphore(concurrency, true);
+        this.timeout = timeout;
+    }
+
+    @NotNull
+    public <T> CompletableFuture<T> submit(@NotNull Callable<T> task) {
+        Validation.notNull(task, "Task must not be null.");
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                future.completeExceptionally(new RejectedExecutionException(
+                        String.format("Database executor is saturated, no permit acquired in %sms.", timeout)));
+                return future;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (Throwable e) {
+            permits.release();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public void close() {
+        executor.shutdown();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    @NotNull
+    private static ExecutorService createExecutor(int concurrency) {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException ignored) {
+        } catch (Throwable e) {
+            Log.debug(() -> String.format("Virtual threads are unavailable, fallback to platform threads: %s", e));
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                concurrency, concurrency, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "mybatis-database-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
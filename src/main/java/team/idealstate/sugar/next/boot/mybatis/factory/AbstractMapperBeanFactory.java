@@ -21,6 +21,9 @@ import static team.idealstate.sugar.next.function.Functional.functional;
 import java.lang.annotation.Annotation;
 import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import net.bytebuddy.ByteBuddy;
@@ -29,10 +32,12 @@ import net.bytebuddy.implementation.bind.annotation.AllArguments;
 import net.bytebuddy.implementation.bind.annotation.Origin;
 import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import net.bytebuddy.matcher.ElementMatchers;
+import team.idealstate.sugar.next.boot.mybatis.MyBatis;
+import team.idealstate.sugar.next.boot.mybatis.pagination.KeysetPage;
+import team.idealstate.sugar.next.boot.mybatis.result.CompactResults;
 import team.idealstate.sugar.next.context.Context;
 import team.idealstate.sugar.next.context.exception.ContextException;
 import team.idealstate.sugar.next.context.factory.AbstractBeanFactory;
-import team.idealstate.sugar.next.database.TransactionManager;
 import team.idealstate.sugar.validate.Validation;
 import team.idealstate.sugar.validate.annotation.NotNull;
 
@@ -52,12 +57,12 @@ public abstract class AbstractMapperBeanFactory<M extends Annotation> extends Ab
     @SuppressWarnings("unchecked")
     protected <T> T doCreate(
             @NotNull Context context, @NotNull String beanName, @NotNull M metadata, @NotNull Class<T> marked) {
-        TransactionManager transactionManager = TransactionComponentBeanFactory.getTransactionManager(context);
+        MyBatis myBatis = (MyBatis) TransactionComponentBeanFactory.getTransactionManager(context);
         Class<?> proxyType = functional(new ByteBuddy()
                         .subclass(marked)
                         .method(ElementMatchers.any().and(ElementMatchers.not(ElementMatchers.isStatic())))
                         .intercept(MethodDelegation.withDefaultConfiguration()
-                                .to(new MapperInterceptor(transactionManager, marked)))
+                                .to(new MapperInterceptor(myBatis, marked)))
                         .make())
                 .use(Class.class, unloaded -> unloaded.load(context.getClassLoader())
                         .getLoaded());
@@ -74,15 +79,29 @@ public abstract class AbstractMapperBeanFactory<M extends Annotation> extends Ab
     @RequiredArgsConstructor
     public static final class MapperInterceptor {
         @NonNull
-        private final TransactionManager transactionManager;
+        private final MyBatis myBatis;
 
         @NonNull
         private final Class<?> marked;
 
         @RuntimeType
         @SuppressWarnings("unused")
-        public Object intercept(@Origin MethodHandle methodHandle, @AllArguments Object[] arguments) throws Throwable {
-            Object repository = transactionManager.getRepository(marked);
+        public Object intercept(
+                @Origin Method method, @Origin MethodHandle methodHandle, @AllArguments Object[] arguments)
+                throws Throwable {
+            if (!method.isDefault()) {
+                Class<?> returnType = method.getReturnType();
+                if (CompletableFuture.class.equals(returnType)) {
+                    return myBatis.executeAsync(marked, method, arguments);
+                }
+                if (Stream.class.equals(returnType)) {
+                    return myBatis.stream(marked, method, arguments);
+                }
+                if (CompactResults.isCompact(returnType) || KeysetPage.class.equals(returnType)) {
+                    return myBatis.execute(marked, method, arguments);
+                }
+            }
+            Object repository = myBatis.getRepository(marked);
             Validation.notNull(repository, "repository must not be null.");
             return methodHandle.bindTo(repository).invokeWithArguments(arguments);
         }
@@ -28,6 +28,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.Data;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import net.bytebuddy.ByteBuddy;
@@ -42,6 +44,13 @@ import net.bytebuddy.implementation.bind.annotation.SuperCall;
 import net.bytebuddy.matcher.ElementMatchers;
 import team.idealstate.sugar.logging.Log;
 import team.idealstate.sugar.next.boot.mybatis.MyBatis;
+import team.idealstate.sugar.next.boot.mybatis.annotation.GroupCommit;
+import team.idealstate.sugar.next.boot.mybatis.annotation.Propagation;
+import team.idealstate.sugar.next.boot.mybatis.annotation.Retry;
+import team.idealstate.sugar.next.boot.mybatis.concurrent.AdaptiveLimiter;
+import team.idealstate.sugar.next.boot.mybatis.metrics.FlightRecorderEvent;
+import team.idealstate.sugar.next.boot.mybatis.metrics.MyBatisMetrics;
+import team.idealstate.sugar.next.boot.mybatis.transaction.GroupCommitter;
 import team.idealstate.sugar.next.context.Bean;
 import team.idealstate.sugar.next.context.Context;
 import team.idealstate.sugar.next.context.annotation.component.Component;
@@ -71,7 +80,8 @@ public class TransactionComponentBeanFactory extends ComponentBeanFactory {
         if (methods.length == 0) {
             return super.doCreate(context, beanName, metadata, marked);
         }
-        Map<String, Transaction> transactions = new HashMap<>(methods.length);
+        Map<String, TransactionDefinition> transactions = new HashMap<>(methods.length);
+        MyBatis myBatis = null;
         for (Method method : methods) {
             Transaction transaction = method.getAnnotation(Transaction.class);
             if (transaction == null) {
@@ -83,12 +93,54 @@ public class TransactionComponentBeanFactory extends ComponentBeanFactory {
                         getClass().getSimpleName(), marked.getName(), method.getName()));
                 continue;
             }
-            transactions.put(method.toString(), transaction);
+            Propagation propagation = method.getAnnotation(Propagation.class);
+            int propagationValue = propagation == null ? MyBatis.PROPAGATION_REQUIRED : propagation.value();
+            Validation.is(
+                    propagationValue >= MyBatis.PROPAGATION_REQUIRED
+                            && propagationValue <= MyBatis.PROPAGATION_NOT_SUPPORTED,
+                    String.format("'%s' method '%s' has unknown propagation.", marked.getName(), method.getName()));
+            Retry retry = method.getAnnotation(Retry.class);
+            if (retry != null) {
+                Validation.is(
+                        retry.maxAttempts() > 0
+                                && retry.backoff() >= 0
+                                && retry.maxBackoff() >= retry.backoff()
+                                && retry.jitter() >= 0
+                                && retry.jitter() <= 1,
+                        String.format(
+                                "'%s' method '%s' has invalid retry policy.", marked.getName(), method.getName()));
+            }
+            GroupCommit groupCommit = method.getAnnotation(GroupCommit.class);
+            GroupCommitter groupCommitter = null;
+            if (groupCommit != null) {
+                Validation.is(
+                        groupCommit.window() >= 0
+                                && groupCommit.maxSize() > 0
+                                && (propagationValue == MyBatis.PROPAGATION_REQUIRED
+                                        || propagationValue == MyBatis.PROPAGATION_REQUIRES_NEW),
+                        String.format(
+                                "'%s' method '%s' has invalid group commit policy.",
+                                marked.getName(), method.getName()));
+                if (myBatis == null) {
+                    myBatis = (MyBatis) getTransactionManager(context);
+                }
+                groupCommitter = new GroupCommitter(
+                        myBatis,
+                        transaction.executionMode(),
+                        transaction.isolationLevel(),
+                        groupCommit.window(),
+                        groupCommit.maxSize());
+            }
+            transactions.put(
+                    method.toString(),
+                    new TransactionDefinition(transaction, propagationValue, retry, groupCommitter));
         }
         if (transactions.isEmpty()) {
             return super.doCreate(context, beanName, metadata, marked);
         }
-        TransactionManager transactionManager = getTransactionManager(context);
+        if (myBatis == null) {
+            myBatis = (MyBatis) getTransactionManager(context);
+        }
         transactions = Collections.unmodifiableMap(transactions);
         DynamicType.Unloaded<T> unloaded = new ByteBuddy()
                 .subclass(marked)
@@ -97,7 +149,7 @@ public class TransactionComponentBeanFactory extends ComponentBeanFactory {
                 .intercept(SuperMethodCall.INSTANCE)
                 .attribute(MethodAttributeAppender.ForInstrumentedMethod.INCLUDING_RECEIVER)
                 .method(ElementMatchers.any().and(ElementMatchers.not(ElementMatchers.isStatic())))
-                .intercept(MethodDelegation.to(new TransactionInterceptor(transactionManager, transactions)))
+                .intercept(MethodDelegation.to(new TransactionInterceptor(myBatis, transactions)))
                 .attribute(MethodAttributeAppender.ForInstrumentedMethod.INCLUDING_RECEIVER)
                 .make();
         String dump = System.getProperty("bytebuddy.dump");
@@ -132,20 +184,98 @@ public class TransactionComponentBeanFactory extends ComponentBeanFactory {
     @RequiredArgsConstructor
     public static final class TransactionInterceptor {
         @NonNull
-        private final TransactionManager transactionManager;
+        private final MyBatis myBatis;
 
         @NonNull
-        private final Map<String, Transaction> transactions;
+        private final Map<String, TransactionDefinition> transactions;
 
         @SuppressWarnings("unused")
         @RuntimeType
         public Object intercept(@Origin String method, @SuperCall Callable<?> callable) throws Throwable {
-            Transaction transaction = transactions.get(method);
-            if (transaction == null) {
+            TransactionDefinition definition = transactions.get(method);
+            if (definition == null) {
                 return callable.call();
             }
-            return functional(transactionManager.openTransaction(
-                            transaction.executionMode(), transaction.isolationLevel()))
+            Retry retry = definition.getRetry();
+            if (retry == null
+                    || (definition.getPropagation() != MyBatis.PROPAGATION_REQUIRES_NEW
+                            && myBatis.isTransactionActive())) {
+                return invoke(method, definition, callable);
+            }
+            MyBatisMetrics metrics = myBatis.getMetrics();
+            for (int attempt = 1; ; attempt++) {
+                metrics.increment("transaction.attempts");
+                try {
+                    Object result = invoke(method, definition, callable);
+                    if (attempt > 1) {
+                        metrics.increment("transaction.retry.recovered");
+                    }
+                    return result;
+                } catch (Throwable e) {
+                    if (attempt >= retry.maxAttempts() || !myBatis.isRetryable(e)) {
+                        if (attempt > 1) {
+                            metrics.increment("transaction.retry.exhausted");
+                        }
+                        throw e;
+                    }
+                    metrics.increment("transaction.retries");
+                    long delay = getBackoff(retry, attempt);
+                    Log.debug(() -> String.format(
+                            "Retrying transaction '%s' in %sms after a retryable failure: %s", method, delay, e));
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        private Object invoke(
+                @NotNull String method, @NotNull TransactionDefinition definition, @NotNull Callable<?> callable)
+                throws Throwable {
+            Object event = FlightRecorderEvent.TRANSACTION.begin();
+            boolean committed = false;
+            try {
+                Object result = limit(method, definition, callable);
+                committed = true;
+                return result;
+            } finally {
+                if (event != null) {
+                    FlightRecorderEvent.TRANSACTION.commit(event, method, definition.getPropagation(), committed);
+                }
+            }
+        }
+
+        private Object limit(
+                @NotNull String method, @NotNull TransactionDefinition definition, @NotNull Callable<?> callable)
+                throws Throwable {
+            AdaptiveLimiter limiter = myBatis.isTransactionActive() ? null : myBatis.getLimiter();
+            if (limiter == null) {
+                return invoke(definition, callable);
+            }
+            AdaptiveLimiter.Permit permit = limiter.acquire(method);
+            boolean dropped = false;
+            try {
+                return invoke(definition, callable);
+            } catch (Throwable e) {
+                dropped = AdaptiveLimiter.isDropped(e);
+                throw e;
+            } finally {
+                permit.release(dropped);
+            }
+        }
+
+        private Object invoke(@NotNull TransactionDefinition definition, @NotNull Callable<?> callable)
+                throws Throwable {
+            GroupCommitter groupCommitter = definition.getGroupCommitter();
+            if (groupCommitter != null && !myBatis.isTransactionActive()) {
+                return groupCommitter.submit(callable);
+            }
+            Transaction transaction = definition.getTransaction();
+            return functional(myBatis.openTransaction(
+                            transaction.executionMode(), transaction.isolationLevel(), definition.getPropagation()))
                     .use(Object.class, session -> {
                         try {
                             return callable.call();
@@ -155,5 +285,24 @@ public class TransactionComponentBeanFactory extends ComponentBeanFactory {
                         }
                     });
         }
+
+        private static long getBackoff(@NotNull Retry retry, int attempt) {
+            long delay = retry.backoff() << Math.min(attempt - 1, 30);
+            if (delay < 0 || delay > retry.maxBackoff()) {
+                delay = retry.maxBackoff();
+            }
+            long jitter = (long) (delay * retry.jitter());
+            return delay - (jitter <= 0 ? 0 : ThreadLocalRandom.current().nextLong(jitter + 1));
+        }
+    }
+
+    @Data
+    public static final class TransactionDefinition {
+        @NonNull
+        private final Transaction transaction;
+
+        private final int propagation;
+        private final Retry retry;
+        private final GroupCommitter groupCommitter;
     }
 }
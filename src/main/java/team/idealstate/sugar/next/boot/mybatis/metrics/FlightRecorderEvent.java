@@ -0,0 +1,184 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.metrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+public final class FlightRecorderEvent {
+
+    private static final String NAME_PREFIX = "team.idealstate.sugar.next.boot.mybatis.";
+    private static final String[] CATEGORY = {"Sugar Next", "MyBatis"};
+
+    public static final FlightRecorderEvent TRANSACTION_OPEN = define(
+            "TransactionOpen",
+            "Transaction Open",
+            new String[] {"propagation", "executionMode", "isolationLevel"},
+            new Class<?>[] {int.class, int.class, int.class});
+    public static final FlightRecorderEvent TRANSACTION = define(
+            "Transaction",
+            "Transaction",
+            new String[] {"method", "propagation", "committed"},
+            new Class<?>[] {String.class, int.class, boolean.class});
+    public static final FlightRecorderEvent STATEMENT = define(
+            "Statement",
+            "Statement",
+            new String[] {"namespace", "statementId", "commandType", "rows"},
+            new Class<?>[] {String.class, String.class, String.class, long.class});
+    public static final FlightRecorderEvent CACHE_READ = define(
+            "CacheRead",
+            "Cache Read",
+            new String[] {"namespace", "statementId", "hit"},
+            new Class<?>[] {String.class, String.class, boolean.class});
+    public static final FlightRecorderEvent CACHE_APPLY = define(
+            "CacheApply",
+            "Cache Apply",
+            new String[] {"namespace", "entries", "async"},
+            new Class<?>[] {String.class, int.class, boolean.class});
+    public static final FlightRecorderEvent MAPPER_REGISTRATION = define(
+            "MapperRegistration", "Mapper Registration", new String[] {"mapper"}, new Class<?>[] {String.class});
+
+    private final MethodHandle isEnabled;
+    private final MethodHandle constructor;
+    private final MethodHandle begin;
+    private final MethodHandle end;
+    private final MethodHandle shouldCommit;
+    private final MethodHandle commit;
+    private final MethodHandle[] setters;
+
+    private FlightRecorderEvent(
+            MethodHandle isEnabled,
+            MethodHandle constructor,
+            MethodHandle begin,
+            MethodHandle end,
+            MethodHandle shouldCommit,
+            MethodHandle commit,
+            MethodHandle[] setters) {
+        this.isEnabled = isEnabled;
+        this.constructor = constructor;
+        this.begin = begin;
+        this.end = end;
+        this.shouldCommit = shouldCommit;
+        this.commit = commit;
+        this.setters = setters;
+    }
+
+    @Nullable
+    public Object begin() {
+        if (isEnabled == null) {
+            return null;
+        }
+        try {
+            if (!(boolean) isEnabled.invoke()) {
+                return null;
+            }
+            Object event = constructor.invoke();
+            begin.invoke(event);
+            return event;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    public void commit(@Nullable Object event, Object... values) {
+        if (event == null) {
+            return;
+        }
+        try {
+            end.invoke(event);
+            if (!(boolean) shouldCommit.invoke(event)) {
+                return;
+            }
+            for (int i = 0; i < setters.length && i < values.length; i++) {
+                if (values[i] != null) {
+                    setters[i].invoke(event, values[i]);
+                }
+            }
+            commit.invoke(event);
+        } catch (Throwable e) {
+            Log.debug(() -> String.format("Failed to commit flight recorder event: %s", e));
+        }
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static FlightRecorderEvent define(
+            @NotNull String name, @NotNull String label, @NotNull String[] fields, @NotNull Class<?>[] types) {
+        try {
+            Class<?> eventType = Class.forName("jdk.jfr.Event");
+            Class<? extends Annotation> nameType = (Class<? extends Annotation>) Class.forName("jdk.jfr.Name");
+            Class<? extends Annotation> labelType = (Class<? extends Annotation>) Class.forName("jdk.jfr.Label");
+            Class<? extends Annotation> categoryType =
+                    (Class<? extends Annotation>) Class.forName("jdk.jfr.Category");
+            DynamicType.Builder<?> builder = new ByteBuddy()
+                    .subclass(eventType)
+                    .name(FlightRecorderEvent.class.getName() + "$" + name)
+                    .annotateType(
+                            AnnotationDescription.Builder.ofType(nameType)
+                                    .define("value", NAME_PREFIX + name)
+                                    .build(),
+                            AnnotationDescription.Builder.ofType(labelType)
+                                    .define("value", label)
+                                    .build(),
+                            AnnotationDescription.Builder.ofType(categoryType)
+                                    .defineArray("value", CATEGORY)
+                                    .build());
+            for (int i = 0; i < fields.length; i++) {
+                builder = builder.defineField(fields[i], types[i], Visibility.PUBLIC)
+                        .annotateField(AnnotationDescription.Builder.ofType(labelType)
+                                .define("value", fields[i])
+                                .build());
+            }
+            Class<?> loaded = builder.make()
+                    .load(FlightRecorderEvent.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded();
+            Class.forName("jdk.jfr.FlightRecorder")
+                    .getMethod("register", Class.class)
+                    .invoke(null, loaded);
+            Class<?> eventTypeType = Class.forName("jdk.jfr.EventType");
+            Object type = eventTypeType.getMethod("getEventType", Class.class).invoke(null, loaded);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodType returnsVoid = MethodType.methodType(void.class);
+            MethodType returnsBoolean = MethodType.methodType(boolean.class);
+            MethodHandle[] setters = new MethodHandle[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                setters[i] = lookup.unreflectSetter(loaded.getField(fields[i]));
+            }
+            return new FlightRecorderEvent(
+                    lookup.findVirtual(eventTypeType, "isEnabled", returnsBoolean).bindTo(type),
+                    lookup.findConstructor(loaded, returnsVoid),
+                    lookup.findVirtual(eventType, "begin", returnsVoid),
+                    lookup.findVirtual(eventType, "end", returnsVoid),
+                    lookup.findVirtual(eventType, "shouldCommit", returnsBoolean),
+                    lookup.findVirtual(eventType, "commit", returnsVoid),
+                    setters);
+        } catch (Throwable e) {
+            Log.debug(() -> String.format("Flight recorder event '%s' is unavailable: %s", name, e));
+            return new FlightRecorderEvent(null, null, null, null, null, null, new MethodHandle[0]);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class MyBatisMetrics {
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    public void increment(@NotNull String name) {
+        add(name, 1L);
+    }
+
+    public void add(@NotNull String name, long value) {
+        Validation.notNull(name, "Name must not be null.");
+        counters.computeIfAbsent(name, it -> new LongAdder()).add(value);
+    }
+
+    public long getCounter(@NotNull String name) {
+        Validation.notNull(name, "Name must not be null.");
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0L : counter.sum();
+    }
+
+    public void gauge(@NotNull String name, @NotNull LongSupplier gauge) {
+        Validation.notNull(name, "Name must not be null.");
+        Validation.notNull(gauge, "Gauge must not be null.");
+        gauges.put(name, gauge);
+    }
+
+    @NotNull
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> snapshot.put(name, gauge.getAsLong()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+}
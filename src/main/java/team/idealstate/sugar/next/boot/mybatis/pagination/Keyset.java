@@ -0,0 +1,43 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.pagination;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+@Data
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Keyset {
+
+    private final String token;
+    private final int size;
+
+    @NotNull
+    public static Keyset first(int size) {
+        return after(null, size);
+    }
+
+    @NotNull
+    public static Keyset after(@Nullable String token, int size) {
+        Validation.is(size > 0, "Size must be greater than 0.");
+        return new Keyset(token, size);
+    }
+}
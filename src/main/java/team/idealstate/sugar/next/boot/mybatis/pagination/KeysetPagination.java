@@ -0,0 +1,204 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.pagination;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.session.Configuration;
+import team.idealstate.sugar.next.boot.mybatis.annotation.SeekBy;
+import team.idealstate.sugar.next.boot.mybatis.cache.CompactCacheKey;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+public final class KeysetPagination {
+
+    private static final String COLUMN_PATTERN = "[\\w$]+|`[^`]+`|\"[^\"]+\"";
+    private static final Field SQL_SOURCE_FIELD;
+
+    static {
+        try {
+            SQL_SOURCE_FIELD = MappedStatement.class.getDeclaredField("sqlSource");
+            SQL_SOURCE_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    private KeysetPagination() {}
+
+    public static void adapt(@NotNull MappedStatement ms, @Nullable SeekBy seekBy) {
+        Validation.notNull(ms, "Mapped statement must not be null.");
+        if (ms.getSqlSource() instanceof KeysetSqlSource) {
+            return;
+        }
+        if (seekBy == null || seekBy.value().length == 0) {
+            throw new MyBatisException(
+                    String.format("Keyset pagination of '%s' requires @SeekBy sort columns.", ms.getId()));
+        }
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT || ms.getResultMaps().size() != 1) {
+            throw new MyBatisException(
+                    String.format("Keyset pagination of '%s' requires a select with one result map.", ms.getId()));
+        }
+        String[] columns = seekBy.value();
+        String[] properties = seekBy.properties();
+        if (properties.length != 0 && properties.length != columns.length) {
+            throw new MyBatisException(String.format(
+                    "Keyset pagination of '%s' declares %s columns but %s properties.",
+                    ms.getId(), columns.length, properties.length));
+        }
+        Configuration configuration = ms.getConfiguration();
+        ResultMap resultMap = ms.getResultMaps().get(0);
+        String[] resolved = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (!columns[i].matches(COLUMN_PATTERN)) {
+                throw new MyBatisException(
+                        String.format("Keyset column '%s' of '%s' is not a column name.", columns[i], ms.getId()));
+            }
+            resolved[i] = properties.length == 0 ? findProperty(configuration, resultMap, columns[i]) : properties[i];
+            if (resolved[i] == null) {
+                throw new MyBatisException(String.format(
+                        "Keyset column '%s' of '%s' is not mapped to a property.", columns[i], ms.getId()));
+            }
+        }
+        Class<?> type = resultMap.getType();
+        if (!Map.class.isAssignableFrom(type)) {
+            MetaClass metaClass = MetaClass.forClass(type, configuration.getReflectorFactory());
+            for (String property : resolved) {
+                if (!metaClass.hasGetter(property)) {
+                    throw new MyBatisException(String.format(
+                            "Keyset property '%s' of '%s' is not readable.", property, ms.getId()));
+                }
+                Class<?> propertyType = metaClass.getGetterType(property);
+                if (!Object.class.equals(propertyType) && !CompactCacheKey.isSupported(propertyType)) {
+                    throw new MyBatisException(String.format(
+                            "Keyset property '%s' of '%s' has an unsupported type: %s",
+                            property, ms.getId(), propertyType.getName()));
+                }
+            }
+        }
+        try {
+            SQL_SOURCE_FIELD.set(
+                    ms,
+                    new KeysetSqlSource(configuration, ms.getSqlSource(), columns, resolved, seekBy.descending()));
+        } catch (IllegalAccessException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    @Nullable
+    public static Keyset find(Object parameterObject) {
+        if (parameterObject instanceof Keyset) {
+            return (Keyset) parameterObject;
+        }
+        if (parameterObject instanceof Map) {
+            for (Object value : ((Map<?, ?>) parameterObject).values()) {
+                if (value instanceof Keyset) {
+                    return (Keyset) value;
+                }
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    public static KeysetPage<Object> page(@NotNull MappedStatement ms, @NotNull List<?> rows, @NotNull Keyset keyset) {
+        Validation.notNull(ms, "Mapped statement must not be null.");
+        Validation.notNull(rows, "Rows must not be null.");
+        Validation.notNull(keyset, "Keyset must not be null.");
+        if (!(ms.getSqlSource() instanceof KeysetSqlSource)) {
+            throw new MyBatisException(
+                    String.format("Mapped statement '%s' is not adapted for keyset pagination.", ms.getId()));
+        }
+        int size = keyset.getSize();
+        if (rows.size() <= size) {
+            return new KeysetPage<>(new ArrayList<>(rows), null);
+        }
+        List<Object> items = new ArrayList<>(rows.subList(0, size));
+        String[] properties = ((KeysetSqlSource) ms.getSqlSource()).getProperties();
+        Object last = items.get(size - 1);
+        Object[] values = new Object[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            values[i] = ms.getConfiguration().newMetaObject(last).getValue(properties[i]);
+        }
+        return new KeysetPage<>(items, encode(values));
+    }
+
+    @NotNull
+    static String encode(@NotNull Object[] values) {
+        CompactCacheKey key = new CompactCacheKey(values.length);
+        for (Object value : values) {
+            if (value == null) {
+                throw new MyBatisException("Keyset values must not be null.");
+            }
+            key.update(value);
+        }
+        byte[] bytes = key.toBytes();
+        if (bytes == null) {
+            throw new MyBatisException(
+                    "Keyset values must be strings, numbers, booleans, characters, bytes, dates, times or UUIDs.");
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    @NotNull
+    static Object[] decode(@NotNull String token, int count) {
+        CompactCacheKey key;
+        try {
+            key = CompactCacheKey.fromBytes(Base64.getUrlDecoder().decode(token));
+        } catch (IllegalArgumentException e) {
+            throw new MyBatisException(String.format("Malformed keyset token: %s", token), e);
+        }
+        if (key.getUpdateCount() != count) {
+            throw new MyBatisException(String.format("Malformed keyset token: %s", token));
+        }
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = key.getComponent(i);
+            if (values[i] == null) {
+                throw new MyBatisException(String.format("Malformed keyset token: %s", token));
+            }
+        }
+        return values;
+    }
+
+    @Nullable
+    private static String findProperty(
+            @NotNull Configuration configuration, @NotNull ResultMap resultMap, @NotNull String column) {
+        String name = column.replace("`", "").replace("\"", "");
+        for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+            if (name.equalsIgnoreCase(resultMapping.getColumn()) && resultMapping.getProperty() != null) {
+                return resultMapping.getProperty();
+            }
+        }
+        Class<?> type = resultMap.getType();
+        if (Map.class.isAssignableFrom(type)) {
+            return name;
+        }
+        return MetaClass.forClass(type, configuration.getReflectorFactory())
+                .findProperty(name, configuration.isMapUnderscoreToCamelCase());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.pagination;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+final class KeysetSqlSource implements SqlSource {
+
+    private static final String PARAMETER_PREFIX = "__keyset_";
+    private static final String LIMIT_PARAMETER = PARAMETER_PREFIX + "limit";
+    private static final Field ADDITIONAL_PARAMETERS_FIELD;
+
+    static {
+        try {
+            ADDITIONAL_PARAMETERS_FIELD = BoundSql.class.getDeclaredField("additionalParameters");
+            ADDITIONAL_PARAMETERS_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    private final Configuration configuration;
+    private final SqlSource delegate;
+    private final String[] properties;
+    private final String predicate;
+    private final String order;
+
+    KeysetSqlSource(
+            @NotNull Configuration configuration,
+            @NotNull SqlSource delegate,
+            @NotNull String[] columns,
+            @NotNull String[] properties,
+            boolean descending) {
+        this.configuration = configuration;
+        this.delegate = delegate;
+        this.properties = properties.clone();
+        String joined = String.join(", ", columns);
+        StringBuilder predicate = new StringBuilder(" WHERE (")
+                .append(joined)
+                .append(descending ? ") < (" : ") > (");
+        StringBuilder order = new StringBuilder(" ORDER BY ");
+        for (int i = 0; i < columns.length; i++) {
+            predicate.append(i == 0 ? "?" : ", ?");
+            order.append(i == 0 ? "" : ", ").append(columns[i]).append(descending ? " DESC" : " ASC");
+        }
+        this.predicate = predicate.append(')').toString();
+        this.order = order.append(" LIMIT ?").toString();
+    }
+
+    @NotNull
+    String[] getProperties() {
+        return properties.clone();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public BoundSql getBoundSql(Object parameterObject) {
+        Keyset keyset = KeysetPagination.find(parameterObject);
+        if (keyset == null) {
+            throw new MyBatisException("Keyset pagination requires a Keyset parameter.");
+        }
+        BoundSql boundSql = delegate.getBoundSql(parameterObject);
+        Object[] values = keyset.getToken() == null
+                ? null
+                : KeysetPagination.decode(keyset.getToken(), properties.length);
+        String sql = boundSql.getSql();
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        StringBuilder keysetSql = new StringBuilder(sql.length() + predicate.length() + order.length() + 32)
+                .append("SELECT * FROM (")
+                .append(sql)
+                .append(") keyset_");
+        List<ParameterMapping> keysetMappings = new ArrayList<>(parameterMappings.size() + properties.length + 1);
+        keysetMappings.addAll(parameterMappings);
+        if (values != null) {
+            keysetSql.append(predicate);
+            for (int i = 0; i < values.length; i++) {
+                keysetMappings.add(new ParameterMapping.Builder(
+                                configuration, PARAMETER_PREFIX + i, values[i].getClass())
+                        .build());
+            }
+        }
+        keysetSql.append(order);
+        keysetMappings.add(new ParameterMapping.Builder(configuration, LIMIT_PARAMETER, Integer.class).build());
+        BoundSql keysetBoundSql =
+                new BoundSql(configuration, keysetSql.toString(), keysetMappings, parameterObject);
+        try {
+            for (Map.Entry<String, Object> entry :
+                    ((Map<String, Object>) ADDITIONAL_PARAMETERS_FIELD.get(boundSql)).entrySet()) {
+                keysetBoundSql.setAdditionalParameter(entry.getKey(), entry.getValue());
+            }
+        } catch (IllegalAccessException e) {
+            throw new MyBatisException(e);
+        }
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                keysetBoundSql.setAdditionalParameter(PARAMETER_PREFIX + i, values[i]);
+            }
+        }
+        keysetBoundSql.setAdditionalParameter(LIMIT_PARAMETER, keyset.getSize() + 1);
+        return keysetBoundSql;
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.Data;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.AutoMappingBehavior;
+import org.apache.ibatis.session.Configuration;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.cache.CompactCacheKey;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+final class BatchLoader {
+
+    private static final Pattern PREDICATE =
+            Pattern.compile("((?:[\\w$]+\\.)?(?:[\\w$]+|`[^`]+`|\"[^\"]+\"))\\s*=\\s*\\?");
+    private static final Pattern SINGLE_TABLE = Pattern.compile(
+            "^ select (.+?) from ((?:[\\w$]+\\.)?(?:[\\w$]+|`[^`]+`|\"[^\"]+\"))(?: (?:as )?([\\w$]+))? where (.+)$");
+    private static final String[] UNSUPPORTED_CLAUSES = {
+        " limit ", " offset ", " fetch ", " top ", " group by ", " having ", " union ", " distinct ", " join ",
+        " or ", " not ", " exists ", " between ", " case ", "(select ", "( select "
+    };
+    private static final int PARAMETER_COMPONENT = 4;
+
+    private final int batchSize;
+    private final Map<String, Plan> plans;
+    private final Map<Plan, List<Load>> pending = new LinkedHashMap<>();
+
+    BatchLoader(int batchSize, @NotNull Map<String, Plan> plans) {
+        Validation.is(batchSize > 0, "Batch size must be greater than 0.");
+        Validation.notNull(plans, "Plans must not be null.");
+        this.batchSize = batchSize;
+        this.plans = plans;
+    }
+
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    @Nullable
+    Plan accepts(@NotNull MappedStatement ms, @NotNull CacheKey key) {
+        if (!(key instanceof CompactCacheKey) || key.getUpdateCount() <= PARAMETER_COMPONENT) {
+            return null;
+        }
+        Plan plan = plans.computeIfAbsent(ms.getId(), it -> Plan.of(ms));
+        return plan.isSupported() ? plan : null;
+    }
+
+    void defer(
+            @NotNull Plan plan,
+            @NotNull CacheKey key,
+            @NotNull MetaObject resultObject,
+            @NotNull String property,
+            @NotNull Class<?> targetType) {
+        Object parameter = ((CompactCacheKey) key).getComponent(PARAMETER_COMPONENT);
+        pending.computeIfAbsent(plan, it -> new ArrayList<>())
+                .add(new Load(key, parameter, resultObject, property, targetType));
+    }
+
+    @NotNull
+    Map<Plan, List<Load>> drain() {
+        if (pending.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Plan, List<Load>> drained = new LinkedHashMap<>(pending);
+        pending.clear();
+        return drained;
+    }
+
+    void clear() {
+        pending.clear();
+    }
+
+    @Nullable
+    static Object normalize(@Nullable Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            return Double.isNaN(number) || Double.isInfinite(number)
+                    ? value
+                    : BigDecimal.valueOf(number).stripTrailingZeros();
+        }
+        if (value instanceof Number) {
+            return new BigDecimal(value.toString()).stripTrailingZeros();
+        }
+        return value;
+    }
+
+    @Data
+    static final class Load {
+        private final CacheKey key;
+        private final Object parameter;
+        private final MetaObject resultObject;
+        private final String property;
+        private final Class<?> targetType;
+    }
+
+    static final class Plan {
+        private static final Plan UNSUPPORTED = new Plan(null, null, null, null, null, null);
+
+        private final MappedStatement statement;
+        private final ParameterMapping parameterMapping;
+        private final String prefix;
+        private final String column;
+        private final String suffix;
+        private final String property;
+        private final Map<Integer, MappedStatement> statements = new ConcurrentHashMap<>();
+
+        private Plan(
+                MappedStatement statement,
+                ParameterMapping parameterMapping,
+                String prefix,
+                String column,
+                String suffix,
+                String property) {
+            this.statement = statement;
+            this.parameterMapping = parameterMapping;
+            this.prefix = prefix;
+            this.column = column;
+            this.suffix = suffix;
+            this.property = property;
+        }
+
+        boolean isSupported() {
+            return statement != null;
+        }
+
+        @NotNull
+        MappedStatement getStatement() {
+            return statement;
+        }
+
+        @NotNull
+        String getProperty() {
+            return property;
+        }
+
+        @NotNull
+        MappedStatement getStatement(int size) {
+            return statements.computeIfAbsent(size, this::createStatement);
+        }
+
+        @NotNull
+        private MappedStatement createStatement(int size) {
+            Configuration configuration = statement.getConfiguration();
+            StringBuilder sql = new StringBuilder(prefix.length() + column.length() + suffix.length() + size * 3 + 8)
+                    .append(prefix)
+                    .append(column)
+                    .append(" IN (");
+            List<ParameterMapping> parameterMappings = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+                parameterMappings.add(new ParameterMapping.Builder(
+                                configuration, parameterName(i), parameterMapping.getJavaType())
+                        .jdbcType(parameterMapping.getJdbcType())
+                        .typeHandler(parameterMapping.getTypeHandler())
+                        .build());
+            }
+            sql.append(')').append(suffix);
+            return new MappedStatement.Builder(
+                            configuration,
+                            statement.getId() + "!batch" + size,
+                            new StaticSqlSource(configuration, sql.toString(), parameterMappings),
+                            SqlCommandType.SELECT)
+                    .resource(statement.getResource())
+                    .databaseId(statement.getDatabaseId())
+                    .lang(statement.getLang())
+                    .statementType(statement.getStatementType())
+                    .resultSetType(statement.getResultSetType())
+                    .fetchSize(statement.getFetchSize())
+                    .timeout(statement.getTimeout())
+                    .resultMaps(statement.getResultMaps())
+                    .flushCacheRequired(false)
+                    .useCache(false)
+                    .build();
+        }
+
+        @NotNull
+        static String parameterName(int index) {
+            return "batch" + index;
+        }
+
+        @NotNull
+        private static Plan of(@NotNull MappedStatement ms) {
+            if (ms.getSqlCommandType() != SqlCommandType.SELECT
+                    || ms.getResultSets() != null
+                    || ms.getResultMaps().size() != 1) {
+                return UNSUPPORTED;
+            }
+            SqlSource sqlSource = ms.getSqlSource();
+            if (!(sqlSource instanceof RawSqlSource) && !(sqlSource instanceof StaticSqlSource)) {
+                return UNSUPPORTED;
+            }
+            ResultMap resultMap = ms.getResultMaps().get(0);
+            if (resultMap.hasNestedResultMaps()) {
+                return UNSUPPORTED;
+            }
+            BoundSql boundSql = ms.getBoundSql(null);
+            List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+            if (parameterMappings.size() != 1 || parameterMappings.get(0).getMode() != ParameterMode.IN) {
+                return UNSUPPORTED;
+            }
+            String sql = boundSql.getSql();
+            String normalized = ' ' + sql.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ") + ' ';
+            for (String clause : UNSUPPORTED_CLAUSES) {
+                if (normalized.contains(clause)) {
+                    return UNSUPPORTED;
+                }
+            }
+            Matcher table = SINGLE_TABLE.matcher(normalized);
+            if (!table.matches() || table.group(4).contains(" select ")) {
+                return UNSUPPORTED;
+            }
+            Matcher matcher = PREDICATE.matcher(sql);
+            if (!matcher.find()
+                    || sql.indexOf('?', matcher.end()) >= 0
+                    || !(' ' + sql.substring(0, matcher.start()).toLowerCase(Locale.ROOT))
+                            .replaceAll("\\s+", " ")
+                            .contains(" where ")) {
+                return UNSUPPORTED;
+            }
+            String column = matcher.group(1);
+            String name = unquote(column.substring(column.lastIndexOf('.') + 1)).toLowerCase(Locale.ROOT);
+            if (!isOwnColumn(column, table.group(2), table.group(3)) || table.group(1).contains(" as " + name)) {
+                return UNSUPPORTED;
+            }
+            String property = findProperty(ms.getConfiguration(), resultMap, column);
+            if (property == null) {
+                return UNSUPPORTED;
+            }
+            Log.debug(() -> String.format("Nested select '%s' is loaded in batches by '%s'.", ms.getId(), column));
+            return new Plan(
+                    ms,
+                    parameterMappings.get(0),
+                    sql.substring(0, matcher.start()),
+                    column,
+                    sql.substring(matcher.end()),
+                    property);
+        }
+
+        private static boolean isOwnColumn(@NotNull String column, @NotNull String table, @Nullable String alias) {
+            int index = column.lastIndexOf('.');
+            if (index < 0) {
+                return true;
+            }
+            String qualifier = unquote(column.substring(0, index)).toLowerCase(Locale.ROOT);
+            if (alias != null) {
+                return qualifier.equals(alias);
+            }
+            String name = unquote(table);
+            return qualifier.equals(name) || qualifier.equals(name.substring(name.lastIndexOf('.') + 1));
+        }
+
+        @NotNull
+        private static String unquote(@NotNull String name) {
+            return name.replace("`", "").replace("\"", "");
+        }
+
+        @Nullable
+        private static String findProperty(
+                @NotNull Configuration configuration, @NotNull ResultMap resultMap, @NotNull String column) {
+            String name = unquote(column.substring(column.lastIndexOf('.') + 1));
+            for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+                if (name.equalsIgnoreCase(resultMapping.getColumn())
+                        && resultMapping.getProperty() != null
+                        && resultMapping.getNestedQueryId() == null) {
+                    return resultMapping.getProperty();
+                }
+            }
+            Boolean autoMapping = resultMap.getAutoMapping();
+            if (Boolean.FALSE.equals(autoMapping)
+                    || (autoMapping == null
+                            && configuration.getAutoMappingBehavior() == AutoMappingBehavior.NONE)) {
+                return null;
+            }
+            Class<?> type = resultMap.getType();
+            if (Map.class.isAssignableFrom(type)) {
+                return null;
+            }
+            return MetaClass.forClass(type, configuration.getReflectorFactory())
+                    .findProperty(name, configuration.isMapUnderscoreToCamelCase());
+        }
+    }
+}
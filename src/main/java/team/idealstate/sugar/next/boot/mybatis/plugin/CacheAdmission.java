@@ -0,0 +1,169 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.ibatis.mapping.MappedStatement;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.metrics.MyBatisMetrics;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class CacheAdmission {
+
+    private final MyBatisMetrics metrics;
+    private final int minSamples;
+    private final double minHitRatio;
+    private final long probeInterval;
+    private final Map<String, Stats> statements = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> invalidations = new ConcurrentHashMap<>();
+
+    public CacheAdmission(@NotNull MyBatisMetrics metrics, int minSamples, int minHitRatio, int probeInterval) {
+        Validation.notNull(metrics, "Metrics must not be null.");
+        Validation.is(minSamples > 0, "Min samples must be greater than 0.");
+        Validation.is(minHitRatio >= 0 && minHitRatio <= 100, "Min hit ratio must be between 0 and 100.");
+        Validation.is(probeInterval > 0, "Probe interval must be greater than 0.");
+        this.metrics = metrics;
+        this.minSamples = minSamples;
+        this.minHitRatio = minHitRatio / 100.0D;
+        this.probeInterval = TimeUnit.SECONDS.toNanos(probeInterval);
+    }
+
+    public boolean admits(@NotNull MappedStatement ms) {
+        Stats stats = getStats(ms);
+        if (!stats.bypassed) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - stats.probeAt < 0L) {
+            return false;
+        }
+        synchronized (stats) {
+            if (stats.bypassed && now - stats.probeAt >= 0L) {
+                stats.reset();
+                stats.bypassed = false;
+                metrics.increment("cache.admission.probes");
+                Log.debug(() -> String.format("Re-probing second level cache of '%s'.", stats.id));
+            }
+        }
+        return true;
+    }
+
+    public void onHit(@NotNull MappedStatement ms, long cacheNanos) {
+        Stats stats = getStats(ms);
+        stats.lookups.increment();
+        stats.hits.increment();
+        stats.cacheNanos.add(cacheNanos);
+        evaluate(stats);
+    }
+
+    public void onMiss(@NotNull MappedStatement ms, long cacheNanos, long queryNanos) {
+        Stats stats = getStats(ms);
+        stats.lookups.increment();
+        stats.cacheNanos.add(cacheNanos);
+        stats.queryNanos.add(queryNanos);
+        evaluate(stats);
+    }
+
+    public void onInvalidate(@NotNull String namespace) {
+        getInvalidations(namespace).increment();
+    }
+
+    @NotNull
+    private Stats getStats(@NotNull MappedStatement ms) {
+        String id = ms.getId();
+        Stats stats = statements.get(id);
+        if (stats != null) {
+            return stats;
+        }
+        return statements.computeIfAbsent(id, it -> {
+            Stats created = new Stats(it, getInvalidations(it.substring(0, it.lastIndexOf('.'))));
+            metrics.gauge("cache.admission." + it + ".bypassed", () -> created.bypassed ? 1L : 0L);
+            metrics.gauge("cache.admission." + it + ".hitRatio", () -> created.hitRatio);
+            return created;
+        });
+    }
+
+    @NotNull
+    private LongAdder getInvalidations(@NotNull String namespace) {
+        return invalidations.computeIfAbsent(namespace, it -> new LongAdder());
+    }
+
+    private void evaluate(@NotNull Stats stats) {
+        if (stats.lookups.sum() < minSamples) {
+            return;
+        }
+        synchronized (stats) {
+            long lookups = stats.lookups.sum();
+            if (lookups < minSamples) {
+                return;
+            }
+            long hits = stats.hits.sum();
+            long misses = lookups - hits;
+            long invalidated = stats.invalidations.sum() - stats.invalidationBase;
+            double hitRatio = (double) hits / lookups;
+            double saved = misses == 0L ? 0.0D : hits * ((double) stats.queryNanos.sum() / misses);
+            double overhead = stats.cacheNanos.sum();
+            boolean bypass = hitRatio < minHitRatio || invalidated > lookups || (misses > 0L && saved <= overhead);
+            stats.hitRatio = Math.round(hitRatio * 100.0D);
+            stats.reset();
+            if (bypass) {
+                stats.bypassed = true;
+                stats.probeAt = System.nanoTime() + probeInterval;
+                metrics.increment("cache.admission.bypasses");
+                Log.debug(() -> String.format(
+                        "Bypassing second level cache of '%s': hit ratio %.2f, %s invalidations in %s lookups, %sms saved for %sms overhead.",
+                        stats.id,
+                        hitRatio,
+                        invalidated,
+                        lookups,
+                        TimeUnit.NANOSECONDS.toMillis((long) saved),
+                        TimeUnit.NANOSECONDS.toMillis((long) overhead)));
+            }
+        }
+    }
+
+    private static final class Stats {
+        private final String id;
+        private final LongAdder invalidations;
+        private final LongAdder lookups = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder cacheNanos = new LongAdder();
+        private final LongAdder queryNanos = new LongAdder();
+        private long invalidationBase;
+        private volatile boolean bypassed;
+        private volatile long probeAt;
+        private volatile long hitRatio = 100L;
+
+        private Stats(@NotNull String id, @NotNull LongAdder invalidations) {
+            this.id = id;
+            this.invalidations = invalidations;
+            this.invalidationBase = invalidations.sum();
+        }
+
+        private void reset() {
+            lookups.reset();
+            hits.reset();
+            cacheNanos.reset();
+            queryNanos.reset();
+            invalidationBase = invalidations.sum();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ibatis.cache.Cache;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.metrics.FlightRecorderEvent;
+import team.idealstate.sugar.next.boot.mybatis.metrics.MyBatisMetrics;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class CachePipeline {
+
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger();
+    private final Map<String, Namespace> namespaces = new ConcurrentHashMap<>();
+    private final BlockingQueue<Namespace> ready = new LinkedBlockingQueue<>();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    public CachePipeline(@NotNull MyBatisMetrics metrics, int capacity) {
+        Validation.notNull(metrics, "Metrics must not be null.");
+        Validation.is(capacity > 0, "Capacity must be greater than 0.");
+        this.capacity = capacity;
+        metrics.gauge("cache.pipeline.pending", size::get);
+        this.worker = new Thread(this::work, "mybatis-cache-pipeline");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    void submit(@NotNull List<CachingInterceptor.CachingExecutorWrapper.CachePlan> plans) {
+        Map<String, Pending> batches = new LinkedHashMap<>();
+        for (CachingInterceptor.CachingExecutorWrapper.CachePlan plan : plans) {
+            Pending batch = batches.computeIfAbsent(plan.getNamespace(), it -> new Pending(plan.getCache()));
+            if (plan.isValid()) {
+                batch.put(plan.getKey(), plan.getValue());
+            } else {
+                batch.clear();
+            }
+        }
+        for (Map.Entry<String, Pending> entry : batches.entrySet()) {
+            Namespace namespace = namespaces.computeIfAbsent(entry.getKey(), it -> new Namespace());
+            if (namespace.merge(entry.getValue())) {
+                ready.add(namespace);
+            }
+            if (closed || size.get() > capacity) {
+                namespace.apply();
+            }
+        }
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        worker.interrupt();
+        for (Namespace namespace : namespaces.values()) {
+            namespace.apply();
+        }
+        ready.clear();
+    }
+
+    Object read(@NotNull String namespace, @NotNull Cache cache, @NotNull Object key) {
+        Namespace state = namespaces.get(namespace);
+        if (state == null || state.applied == state.sequence) {
+            return cache.getObject(key);
+        }
+        Object[] found = new Object[1];
+        if (state.lookup(key, found)) {
+            return found[0];
+        }
+        return cache.getObject(key);
+    }
+
+    private void work() {
+        while (true) {
+            try {
+                ready.take().apply();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                Log.error(e);
+            }
+        }
+    }
+
+    private final class Namespace {
+        private final Object applying = new Object();
+        private Pending pending;
+        private Pending inflight;
+        private volatile long sequence;
+        private volatile long applied;
+
+        private synchronized boolean merge(@NotNull Pending batch) {
+            int before = pending == null ? 0 : pending.size();
+            boolean idle = pending == null;
+            if (idle) {
+                pending = batch;
+            } else {
+                pending.merge(batch);
+            }
+            size.addAndGet(pending.size() - before);
+            sequence++;
+            return idle;
+        }
+
+        private synchronized boolean lookup(@NotNull Object key, @NotNull Object[] found) {
+            if (pending != null && pending.lookup(key, found)) {
+                return true;
+            }
+            return inflight != null && inflight.lookup(key, found);
+        }
+
+        private void apply() {
+            synchronized (applying) {
+                Pending batch;
+                long sequence;
+                synchronized (this) {
+                    batch = pending;
+                    if (batch == null) {
+                        return;
+                    }
+                    pending = null;
+                    inflight = batch;
+                    sequence = this.sequence;
+                }
+                Object event = FlightRecorderEvent.CACHE_APPLY.begin();
+                try {
+                    batch.apply();
+                } finally {
+                    if (event != null) {
+                        FlightRecorderEvent.CACHE_APPLY.commit(event, batch.cache.getId(), batch.size(), true);
+                    }
+                    synchronized (this) {
+                        inflight = null;
+                        applied = sequence;
+                    }
+                    size.addAndGet(-batch.size());
+                }
+            }
+        }
+    }
+
+    private static final class Pending {
+        private final Cache cache;
+        private final Map<Object, Object> puts = new LinkedHashMap<>();
+        private boolean clear;
+
+        private Pending(@NotNull Cache cache) {
+            this.cache = cache;
+        }
+
+        private int size() {
+            return puts.size() + (clear ? 1 : 0);
+        }
+
+        private void put(Object key, Object value) {
+            puts.remove(key);
+            puts.put(key, value);
+        }
+
+        private void clear() {
+            puts.clear();
+            clear = true;
+        }
+
+        private void merge(@NotNull Pending batch) {
+            if (batch.clear) {
+                clear();
+            }
+            for (Map.Entry<Object, Object> entry : batch.puts.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        private boolean lookup(@NotNull Object key, @NotNull Object[] found) {
+            if (puts.containsKey(key)) {
+                found[0] = puts.get(key);
+                return true;
+            }
+            if (clear) {
+                found[0] = null;
+                return true;
+            }
+            return false;
+        }
+
+        private void apply() {
+            if (clear) {
+                try {
+                    cache.clear();
+                } catch (Throwable e) {
+                    Log.error(e);
+                }
+            }
+            for (Map.Entry<Object, Object> entry : puts.entrySet()) {
+                try {
+                    cache.putObject(entry.getKey(), entry.getValue());
+                } catch (Throwable e) {
+                    Log.error(e);
+                }
+            }
+        }
+    }
+}
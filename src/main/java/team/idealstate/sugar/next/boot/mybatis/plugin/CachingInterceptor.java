@@ -18,12 +18,17 @@ package team.idealstate.sugar.next.boot.mybatis.plugin;
 
 import java.lang.reflect.Field;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -37,6 +42,7 @@ import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.ResultExtractor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
@@ -46,16 +52,59 @@ import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.Invocation;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.type.TypeHandlerRegistry;
 import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.cache.CompactCacheKey;
 import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.boot.mybatis.metrics.FlightRecorderEvent;
+import team.idealstate.sugar.next.boot.mybatis.result.CompactRowBounds;
 import team.idealstate.sugar.validate.Validation;
 import team.idealstate.sugar.validate.annotation.NotNull;
 import team.idealstate.sugar.validate.annotation.Nullable;
 
 public class CachingInterceptor implements Interceptor {
+
+    private final int batchSize;
+    private final CacheAdmission admission;
+    private final CachePipeline pipeline;
+    private final int identityMapSize;
+    private final Map<String, BatchLoader.Plan> batchPlans = new ConcurrentHashMap<>();
+    private final Map<String, String[]> identities = IdentityMap.newIdentities();
+
+    public CachingInterceptor() {
+        this(0);
+    }
+
+    public CachingInterceptor(int batchSize) {
+        this(batchSize, null);
+    }
+
+    public CachingInterceptor(int batchSize, @Nullable CacheAdmission admission) {
+        this(batchSize, admission, null);
+    }
+
+    public CachingInterceptor(
+            int batchSize, @Nullable CacheAdmission admission, @Nullable CachePipeline pipeline) {
+        this(batchSize, admission, pipeline, 0);
+    }
+
+    public CachingInterceptor(
+            int batchSize,
+            @Nullable CacheAdmission admission,
+            @Nullable CachePipeline pipeline,
+            int identityMapSize) {
+        Validation.is(batchSize >= 0, "Batch size must be greater than or equal to 0.");
+        Validation.is(identityMapSize >= 0, "Identity map size must be greater than or equal to 0.");
+        this.batchSize = batchSize;
+        this.admission = admission;
+        this.pipeline = pipeline;
+        this.identityMapSize = identityMapSize;
+    }
+
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
         throw new MyBatisException(new UnsupportedOperationException());
@@ -66,17 +115,40 @@ public class CachingInterceptor implements Interceptor {
         if (!(target instanceof Executor)) {
             return target;
         }
-        return new CachingExecutorWrapper((Executor) target);
+        return new CachingExecutorWrapper(
+                (Executor) target,
+                batchSize == 0 ? null : new BatchLoader(batchSize, batchPlans),
+                admission,
+                pipeline,
+                identityMapSize == 0 ? null : new IdentityMap(identityMapSize, identities));
     }
 
     public static class CachingExecutorWrapper implements Executor {
 
         private final Executor delegate;
         private final Deque<CachePlan> plans = new ConcurrentLinkedDeque<>();
+        private final BatchLoader batchLoader;
+        private final CacheAdmission admission;
+        private final CachePipeline pipeline;
+        private final IdentityMap identityMap;
+        private int queryDepth;
 
         public CachingExecutorWrapper(@NotNull Executor delegate) {
+            this(delegate, null, null, null, null);
+        }
+
+        CachingExecutorWrapper(
+                @NotNull Executor delegate,
+                @Nullable BatchLoader batchLoader,
+                @Nullable CacheAdmission admission,
+                @Nullable CachePipeline pipeline,
+                @Nullable IdentityMap identityMap) {
             Validation.notNull(delegate, "Delegate must not be null.");
             this.delegate = delegate;
+            this.batchLoader = batchLoader;
+            this.admission = admission;
+            this.pipeline = pipeline;
+            this.identityMap = identityMap;
             delegate.setExecutorWrapper(this);
         }
 
@@ -88,7 +160,8 @@ public class CachingInterceptor implements Interceptor {
         protected final MappedStatement preprocess(MappedStatement ms) {
             clearLocalCache();
             String namespace = getNamespace(ms);
-            Cache cache = ms.getConfiguration().getCache(namespace);
+            Configuration configuration = ms.getConfiguration();
+            Cache cache = configuration.hasCache(namespace) ? configuration.getCache(namespace) : null;
             Cache oldCache = ms.getCache();
             if (!Objects.equals(cache, oldCache)) {
                 try {
@@ -131,7 +204,7 @@ public class CachingInterceptor implements Interceptor {
         protected final CachePlan pushPlan(@NotNull CachePlan cachePlan) {
             Validation.notNull(cachePlan, "Cache plan must not be null.");
             String namespace = cachePlan.getNamespace();
-            String key = String.valueOf(cachePlan.getKey());
+            CacheKey key = cachePlan.getKey();
             CachePlan last = null;
             for (CachePlan plan : plans) {
                 if (!cachePlan.isValid()) {
@@ -144,7 +217,7 @@ public class CachingInterceptor implements Interceptor {
                         }
                     }
                 } else if (namespace.equals(plan.getNamespace())
-                        && Objects.equals(key, String.valueOf(plan.getKey()))) {
+                        && Objects.equals(key, plan.getKey())) {
                     if (plan.isValid()) {
                         plan.drop();
                     }
@@ -168,15 +241,35 @@ public class CachingInterceptor implements Interceptor {
             }
             String namespace = getNamespace(ms);
             String id = ms.getId();
+            Object event = FlightRecorderEvent.CACHE_READ.begin();
+            if (event == null) {
+                return lookupCache(namespace, id, cache, key);
+            }
+            Object value = null;
+            try {
+                value = lookupCache(namespace, id, cache, key);
+                return value;
+            } finally {
+                FlightRecorderEvent.CACHE_READ.commit(event, namespace, id, value != null);
+            }
+        }
+
+        @Nullable
+        private Object lookupCache(
+                @NotNull String namespace, @NotNull String id, @NotNull Cache cache, @NotNull CacheKey key) {
             for (CachePlan plan : plans) {
-                if (plan.isValid()
-                        && namespace.equals(plan.getNamespace())
-                        && id.equals(plan.getId())
-                        && key.toString().equals(String.valueOf(plan.getKey()))) {
+                if (!namespace.equals(plan.getNamespace())) {
+                    continue;
+                }
+                if (!plan.isValid()) {
+                    if (plan.getKey() == null) {
+                        return null;
+                    }
+                } else if (id.equals(plan.getId()) && key.equals(plan.getKey())) {
                     return plan.getValue();
                 }
             }
-            return cache.getObject(key);
+            return pipeline == null ? cache.getObject(key) : pipeline.read(namespace, cache, key);
         }
 
         @SuppressWarnings("UnusedReturnValue")
@@ -199,11 +292,17 @@ public class CachingInterceptor implements Interceptor {
             if (!ms.isFlushCacheRequired()) {
                 return;
             }
+            if (admission != null) {
+                admission.onInvalidate(getNamespace(ms));
+            }
             pushPlan(new CachePlan(getNamespace(ms), ms.getId(), cache, null, null, System.nanoTime(), false, null)
                     .drop());
         }
 
         protected void rollbackCache(boolean required) {
+            if (identityMap != null) {
+                identityMap.clear();
+            }
             if (plans.isEmpty()) {
                 return;
             }
@@ -219,11 +318,53 @@ public class CachingInterceptor implements Interceptor {
             }
         }
 
+        public final int markCache() {
+            return plans.size();
+        }
+
+        public final void rollbackCache(int mark) {
+            if (identityMap != null) {
+                identityMap.clear();
+            }
+            while (plans.size() > mark) {
+                CachePlan plan = plans.poll();
+                if (plan == null) {
+                    break;
+                }
+                plan.drop();
+            }
+        }
+
         @SuppressWarnings("unused")
         protected final void commitCache(boolean required) {
+            if (identityMap != null) {
+                identityMap.clear();
+            }
             if (plans.isEmpty()) {
                 return;
             }
+            Object event = FlightRecorderEvent.CACHE_APPLY.begin();
+            int entries = plans.size();
+            try {
+                applyCache();
+            } finally {
+                if (event != null) {
+                    FlightRecorderEvent.CACHE_APPLY.commit(event, null, entries, pipeline != null);
+                }
+            }
+        }
+
+        private void applyCache() {
+            if (pipeline != null) {
+                List<CachePlan> committed = new ArrayList<>(plans.size());
+                Iterator<CachePlan> iterator = plans.descendingIterator();
+                while (iterator.hasNext()) {
+                    committed.add(iterator.next());
+                    iterator.remove();
+                }
+                pipeline.submit(committed);
+                return;
+            }
             Set<String> excludes = new HashSet<>(plans.size());
             Iterator<CachePlan> iterator = plans.descendingIterator();
             while (iterator.hasNext()) {
@@ -235,7 +376,13 @@ public class CachingInterceptor implements Interceptor {
         @Override
         public int update(MappedStatement ms, Object parameterObject) throws SQLException {
             preprocess(ms);
-            flushCacheIfRequired(ms, ms.getCache());
+            if (identityMap != null) {
+                identityMap.invalidate(getNamespace(ms));
+            }
+            Cache cache = ms.getCache();
+            if (cache != null) {
+                flushCacheIfRequired(ms, cache);
+            }
             return delegate.update(ms, parameterObject);
         }
 
@@ -243,12 +390,17 @@ public class CachingInterceptor implements Interceptor {
         public <E> Cursor<E> queryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds)
                 throws SQLException {
             preprocess(ms);
-            flushCacheIfRequired(ms, ms.getCache());
+            if (identityMap != null && ms.isFlushCacheRequired()) {
+                identityMap.invalidate(getNamespace(ms));
+            }
+            Cache cache = ms.getCache();
+            if (cache != null) {
+                flushCacheIfRequired(ms, cache);
+            }
             return delegate.queryCursor(ms, parameter, rowBounds);
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public <E> List<E> query(
                 MappedStatement ms,
                 Object parameterObject,
@@ -257,16 +409,85 @@ public class CachingInterceptor implements Interceptor {
                 CacheKey key,
                 BoundSql boundSql)
                 throws SQLException {
+            if (batchLoader == null) {
+                return doQuery(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
+            }
+            boolean completed = false;
+            queryDepth++;
+            try {
+                List<E> result = doQuery(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
+                if (queryDepth == 1) {
+                    loadDeferred();
+                }
+                completed = true;
+                return result;
+            } finally {
+                queryDepth--;
+                if (!completed && queryDepth == 0) {
+                    batchLoader.clear();
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <E> List<E> doQuery(
+                MappedStatement ms,
+                Object parameterObject,
+                RowBounds rowBounds,
+                ResultHandler resultHandler,
+                CacheKey key,
+                BoundSql boundSql)
+                throws SQLException {
             preprocess(ms);
+            if (identityMap == null) {
+                return doCachedQuery(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
+            }
+            String namespace = getNamespace(ms);
+            if (ms.isFlushCacheRequired()) {
+                identityMap.invalidate(namespace);
+            }
+            if (resultHandler != null
+                    || !ms.isUseCache()
+                    || !SqlCommandType.SELECT.equals(ms.getSqlCommandType())
+                    || ms.getStatementType() == StatementType.CALLABLE
+                    || rowBounds instanceof CompactRowBounds) {
+                return doCachedQuery(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
+            }
+            List<E> result = (List<E>) identityMap.get(key);
+            if (result != null) {
+                return result;
+            }
+            result = doCachedQuery(ms, parameterObject, rowBounds, null, key, boundSql);
+            return (List<E>) identityMap.put(ms, namespace, key, (List<Object>) result);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <E> List<E> doCachedQuery(
+                MappedStatement ms,
+                Object parameterObject,
+                RowBounds rowBounds,
+                ResultHandler resultHandler,
+                CacheKey key,
+                BoundSql boundSql)
+                throws SQLException {
             Cache cache = ms.getCache();
             if (cache != null) {
                 flushCacheIfRequired(ms, cache);
-                if (ms.isUseCache() && resultHandler == null) {
+                if (ms.isUseCache() && resultHandler == null && (admission == null || admission.admits(ms))) {
                     ensureNoOutParams(ms, boundSql);
+                    long start = admission == null ? 0L : System.nanoTime();
                     List<E> result = (List<E>) readCache(ms, cache, key);
                     if (result == null) {
+                        long queried = admission == null ? 0L : System.nanoTime();
                         result = delegate.query(ms, parameterObject, rowBounds, null, key, boundSql);
+                        long written = admission == null ? 0L : System.nanoTime();
                         writeCache(ms, cache, key, result);
+                        if (admission != null) {
+                            admission.onMiss(
+                                    ms, queried - start + System.nanoTime() - written, written - queried);
+                        }
+                    } else if (admission != null) {
+                        admission.onHit(ms, System.nanoTime() - start);
                     }
                     return result;
                 }
@@ -274,6 +495,85 @@ public class CachingInterceptor implements Interceptor {
             return delegate.query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
         }
 
+        private void loadDeferred() throws SQLException {
+            Map<BatchLoader.Plan, List<BatchLoader.Load>> loads;
+            while (!(loads = batchLoader.drain()).isEmpty()) {
+                for (Map.Entry<BatchLoader.Plan, List<BatchLoader.Load>> entry : loads.entrySet()) {
+                    loadDeferred(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        private void loadDeferred(@NotNull BatchLoader.Plan plan, @NotNull List<BatchLoader.Load> loads)
+                throws SQLException {
+            MappedStatement ms = preprocess(plan.getStatement());
+            Cache cache = ms.isUseCache() ? ms.getCache() : null;
+            Map<CacheKey, List<Object>> results = new HashMap<>();
+            Map<Object, CacheKey> missing = new LinkedHashMap<>();
+            Map<CacheKey, Object> parameters = new HashMap<>();
+            for (BatchLoader.Load load : loads) {
+                CacheKey key = load.getKey();
+                if (results.containsKey(key) || parameters.containsKey(key)) {
+                    continue;
+                }
+                if (cache != null) {
+                    @SuppressWarnings("unchecked")
+                    List<Object> cached = (List<Object>) readCache(ms, cache, key);
+                    if (cached != null) {
+                        results.put(key, cached);
+                        continue;
+                    }
+                }
+                parameters.put(key, load.getParameter());
+                missing.put(BatchLoader.normalize(load.getParameter()), key);
+            }
+            Configuration configuration = ms.getConfiguration();
+            int batchSize = batchLoader.getBatchSize();
+            List<CacheKey> chunk = new ArrayList<>(Math.min(batchSize, missing.size()));
+            Iterator<CacheKey> iterator = missing.values().iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() < batchSize && iterator.hasNext()) {
+                    continue;
+                }
+                int size = Math.min(batchSize, Integer.highestOneBit(chunk.size() * 2 - 1));
+                Map<String, Object> parameterObject = new HashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    parameterObject.put(
+                            BatchLoader.Plan.parameterName(i),
+                            parameters.get(chunk.get(Math.min(i, chunk.size() - 1))));
+                }
+                List<Object> rows = delegate.query(
+                        plan.getStatement(size), parameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+                for (Object row : rows) {
+                    Object value = BatchLoader.normalize(
+                            configuration.newMetaObject(row).getValue(plan.getProperty()));
+                    CacheKey key = missing.get(value);
+                    if (key != null) {
+                        results.computeIfAbsent(key, it -> new ArrayList<>()).add(row);
+                    }
+                }
+                for (CacheKey key : chunk) {
+                    List<Object> result = results.computeIfAbsent(key, it -> new ArrayList<>());
+                    if (cache != null) {
+                        writeCache(ms, cache, key, result);
+                    }
+                }
+                Log.debug(() -> String.format(
+                        "Loaded %s deferred nested selects of '%s' in one batch.", size, ms.getId()));
+                chunk.clear();
+            }
+            ResultExtractor extractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+            for (BatchLoader.Load load : loads) {
+                load.getResultObject()
+                        .setValue(
+                                load.getProperty(),
+                                extractor.extractObjectFromList(
+                                        results.getOrDefault(load.getKey(), new ArrayList<>()),
+                                        load.getTargetType()));
+            }
+        }
+
         @Override
         public Transaction getTransaction() {
             return delegate.getTransaction();
@@ -330,17 +630,66 @@ public class CachingInterceptor implements Interceptor {
         @Override
         public CacheKey createCacheKey(
                 MappedStatement ms, Object parameterObject, RowBounds rowBounds, BoundSql boundSql) {
-            return delegate.createCacheKey(preprocess(ms), parameterObject, rowBounds, boundSql);
+            if (isClosed()) {
+                throw new ExecutorException("Executor was closed.");
+            }
+            preprocess(ms);
+            Configuration configuration = ms.getConfiguration();
+            List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+            CompactCacheKey key = new CompactCacheKey(parameterMappings.size() + 6);
+            key.update(ms.getId());
+            key.update(rowBounds.getOffset());
+            key.update(rowBounds.getLimit());
+            key.update(boundSql.getSql());
+            TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+            MetaObject metaObject = null;
+            for (ParameterMapping parameterMapping : parameterMappings) {
+                if (parameterMapping.getMode() == ParameterMode.OUT) {
+                    continue;
+                }
+                String property = parameterMapping.getProperty();
+                Object value;
+                if (boundSql.hasAdditionalParameter(property)) {
+                    value = boundSql.getAdditionalParameter(property);
+                } else if (parameterObject == null) {
+                    value = null;
+                } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+                    value = parameterObject;
+                } else {
+                    if (metaObject == null) {
+                        metaObject = configuration.newMetaObject(parameterObject);
+                    }
+                    value = metaObject.getValue(property);
+                }
+                key.update(value);
+            }
+            if (configuration.getEnvironment() != null) {
+                key.update(configuration.getEnvironment().getId());
+            }
+            if (rowBounds instanceof CompactRowBounds) {
+                key.update(((CompactRowBounds) rowBounds).getResultType().getName());
+            }
+            return key;
         }
 
         @Override
         public boolean isCached(MappedStatement ms, CacheKey key) {
-            return delegate.isCached(preprocess(ms), key);
+            if (delegate.isCached(preprocess(ms), key)) {
+                return true;
+            }
+            return batchLoader != null && queryDepth > 0 && batchLoader.accepts(ms, key) != null;
         }
 
         @Override
         public void deferLoad(
                 MappedStatement ms, MetaObject resultObject, String property, CacheKey key, Class<?> targetType) {
+            if (batchLoader != null && queryDepth > 0 && !delegate.isCached(preprocess(ms), key)) {
+                BatchLoader.Plan plan = batchLoader.accepts(ms, key);
+                if (plan != null) {
+                    batchLoader.defer(plan, key, resultObject, property, targetType);
+                    return;
+                }
+            }
             delegate.deferLoad(preprocess(ms), resultObject, property, key, targetType);
         }
 
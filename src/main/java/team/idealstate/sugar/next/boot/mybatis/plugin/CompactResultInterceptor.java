@@ -0,0 +1,78 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collections;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.boot.mybatis.result.CompactResults;
+import team.idealstate.sugar.next.boot.mybatis.result.CompactRowBounds;
+
+@Intercepts({
+    @Signature(
+            type = ResultSetHandler.class,
+            method = "handleResultSets",
+            args = {Statement.class})
+})
+public class CompactResultInterceptor implements Interceptor {
+
+    private static final Field ROW_BOUNDS_FIELD;
+
+    static {
+        try {
+            ROW_BOUNDS_FIELD = DefaultResultSetHandler.class.getDeclaredField("rowBounds");
+            ROW_BOUNDS_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object handler = Plugins.unwrap(invocation.getTarget());
+        if (!(handler instanceof DefaultResultSetHandler)) {
+            return invocation.proceed();
+        }
+        Object rowBounds = ROW_BOUNDS_FIELD.get(handler);
+        if (!(rowBounds instanceof CompactRowBounds)) {
+            return invocation.proceed();
+        }
+        Class<?> resultType = ((CompactRowBounds) rowBounds).getResultType();
+        Statement statement = (Statement) invocation.getArgs()[0];
+        ResultSet resultSet = statement.getResultSet();
+        while (resultSet == null) {
+            if (statement.getMoreResults()) {
+                resultSet = statement.getResultSet();
+            } else if (statement.getUpdateCount() == -1) {
+                return Collections.singletonList(CompactResults.empty(resultType));
+            }
+        }
+        try {
+            return Collections.singletonList(CompactResults.read(resultSet, resultType));
+        } finally {
+            resultSet.close();
+        }
+    }
+}
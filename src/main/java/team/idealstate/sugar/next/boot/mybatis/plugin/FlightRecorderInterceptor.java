@@ -0,0 +1,82 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import java.util.List;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import team.idealstate.sugar.next.boot.mybatis.metrics.FlightRecorderEvent;
+
+@Intercepts({
+    @Signature(
+            type = Executor.class,
+            method = "query",
+            args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(
+            type = Executor.class,
+            method = "query",
+            args = {
+                MappedStatement.class,
+                Object.class,
+                RowBounds.class,
+                ResultHandler.class,
+                CacheKey.class,
+                BoundSql.class
+            }),
+    @Signature(
+            type = Executor.class,
+            method = "update",
+            args = {MappedStatement.class, Object.class})
+})
+public class FlightRecorderInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object event = FlightRecorderEvent.STATEMENT.begin();
+        if (event == null) {
+            return invocation.proceed();
+        }
+        long rows = -1L;
+        try {
+            Object result = invocation.proceed();
+            if (result instanceof List) {
+                rows = ((List<?>) result).size();
+            } else if (result instanceof Integer) {
+                rows = (Integer) result;
+            }
+            return result;
+        } finally {
+            MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+            String id = ms.getId();
+            int index = id.lastIndexOf('.');
+            FlightRecorderEvent.STATEMENT.commit(
+                    event,
+                    index < 0 ? id : id.substring(0, index),
+                    id,
+                    ms.getSqlCommandType().name(),
+                    rows);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Data;
+import lombok.NonNull;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultFlag;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+final class IdentityMap {
+
+    private static final String[] NO_IDENTITY = new String[0];
+
+    private final int size;
+    private final Map<String, String[]> identities;
+    private final Map<CacheKey, Result> results;
+    private final Map<Identity, Object> entities;
+
+    IdentityMap(int size, @NotNull Map<String, String[]> identities) {
+        Validation.is(size > 0, "Size must be greater than 0.");
+        Validation.notNull(identities, "Identities must not be null.");
+        this.size = size;
+        this.identities = identities;
+        this.results = new LinkedHashMap<CacheKey, Result>(16, 0.75F, true) {
+            private static final long serialVersionUID = -3560742829412283047L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Result> eldest) {
+                return size() > IdentityMap.this.size;
+            }
+        };
+        this.entities = new LinkedHashMap<Identity, Object>(16, 0.75F, true) {
+            private static final long serialVersionUID = 6154029817843541873L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Identity, Object> eldest) {
+                return size() > IdentityMap.this.size;
+            }
+        };
+    }
+
+    static Map<String, String[]> newIdentities() {
+        return new ConcurrentHashMap<>();
+    }
+
+    @Nullable
+    List<Object> get(@NotNull CacheKey key) {
+        Result result = results.get(key);
+        return result == null ? null : new ArrayList<>(result.getRows());
+    }
+
+    List<Object> put(@NotNull MappedStatement ms, @NotNull String namespace, @NotNull CacheKey key, List<Object> rows) {
+        if (rows == null) {
+            return null;
+        }
+        List<Object> canonical = canonicalize(ms, namespace, rows);
+        results.put(key, new Result(namespace, canonical == rows ? new ArrayList<>(rows) : canonical));
+        return canonical == rows ? rows : new ArrayList<>(canonical);
+    }
+
+    void invalidate(@NotNull String namespace) {
+        if (!results.isEmpty()) {
+            results.values().removeIf(result -> namespace.equals(result.getNamespace()));
+        }
+        if (!entities.isEmpty()) {
+            entities.keySet().removeIf(identity -> namespace.equals(identity.getNamespace()));
+        }
+    }
+
+    void clear() {
+        results.clear();
+        entities.clear();
+    }
+
+    @NotNull
+    private List<Object> canonicalize(@NotNull MappedStatement ms, @NotNull String namespace, List<Object> rows) {
+        String[] properties = identities.computeIfAbsent(ms.getId(), it -> getIdentity(ms));
+        if (properties.length == 0 || rows.isEmpty()) {
+            return rows;
+        }
+        Configuration configuration = ms.getConfiguration();
+        String resultMap = ms.getResultMaps().get(0).getId();
+        List<Object> canonical = null;
+        for (int i = 0; i < rows.size(); i++) {
+            Object row = rows.get(i);
+            if (row == null) {
+                continue;
+            }
+            MetaObject metaObject = configuration.newMetaObject(row);
+            CacheKey key = new CacheKey();
+            key.update(row.getClass());
+            boolean complete = true;
+            for (String property : properties) {
+                Object value = metaObject.getValue(property);
+                if (value == null) {
+                    complete = false;
+                    break;
+                }
+                key.update(value);
+            }
+            if (!complete) {
+                continue;
+            }
+            Identity identity = new Identity(namespace, resultMap, key);
+            Object existing = entities.get(identity);
+            if (existing == null) {
+                entities.put(identity, row);
+            } else if (existing != row) {
+                if (canonical == null) {
+                    canonical = new ArrayList<>(rows);
+                }
+                canonical.set(i, existing);
+            }
+        }
+        return canonical == null ? rows : canonical;
+    }
+
+    @NotNull
+    private static String[] getIdentity(@NotNull MappedStatement ms) {
+        List<ResultMap> resultMaps = ms.getResultMaps();
+        if (resultMaps.size() != 1) {
+            return NO_IDENTITY;
+        }
+        List<ResultMapping> mappings = resultMaps.get(0).getIdResultMappings();
+        if (mappings.isEmpty()) {
+            return NO_IDENTITY;
+        }
+        String[] properties = new String[mappings.size()];
+        for (int i = 0; i < properties.length; i++) {
+            ResultMapping mapping = mappings.get(i);
+            if (!mapping.getFlags().contains(ResultFlag.ID) || mapping.getProperty() == null) {
+                return NO_IDENTITY;
+            }
+            properties[i] = mapping.getProperty();
+        }
+        return properties;
+    }
+
+    @Data
+    private static final class Result {
+        @NonNull
+        private final String namespace;
+
+        @NonNull
+        private final List<Object> rows;
+    }
+
+    @Data
+    private static final class Identity {
+        @NonNull
+        private final String namespace;
+
+        @NonNull
+        private final String resultMap;
+
+        @NonNull
+        private final CacheKey key;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import team.idealstate.sugar.next.boot.mybatis.concurrent.AdaptiveLimiter;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+@Intercepts({
+    @Signature(
+            type = Executor.class,
+            method = "query",
+            args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(
+            type = Executor.class,
+            method = "query",
+            args = {
+                MappedStatement.class,
+                Object.class,
+                RowBounds.class,
+                ResultHandler.class,
+                CacheKey.class,
+                BoundSql.class
+            }),
+    @Signature(
+            type = Executor.class,
+            method = "update",
+            args = {MappedStatement.class, Object.class})
+})
+public class LimitingInterceptor implements Interceptor {
+
+    private static final ThreadLocal<Boolean> LIMITED = new ThreadLocal<>();
+
+    private final AdaptiveLimiter limiter;
+
+    public LimitingInterceptor(@NotNull AdaptiveLimiter limiter) {
+        Validation.notNull(limiter, "Limiter must not be null.");
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (LIMITED.get() != null) {
+            return invocation.proceed();
+        }
+        String id = ((MappedStatement) invocation.getArgs()[0]).getId();
+        int index = id.lastIndexOf('.');
+        AdaptiveLimiter.Permit permit = limiter.acquire(index < 0 ? id : id.substring(0, index));
+        boolean dropped = false;
+        LIMITED.set(Boolean.TRUE);
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            dropped = AdaptiveLimiter.isDropped(e);
+            throw e;
+        } finally {
+            LIMITED.remove();
+            permit.release(dropped);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import org.apache.ibatis.plugin.Plugin;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class Plugins {
+
+    private static final Field PLUGIN_TARGET_FIELD;
+
+    static {
+        try {
+            PLUGIN_TARGET_FIELD = Plugin.class.getDeclaredField("target");
+            PLUGIN_TARGET_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    private Plugins() {}
+
+    @NotNull
+    public static Object unwrap(@NotNull Object target) throws IllegalAccessException {
+        while (Proxy.isProxyClass(target.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(target);
+            if (!(handler instanceof Plugin)) {
+                break;
+            }
+            target = PLUGIN_TARGET_FIELD.get(handler);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import team.idealstate.sugar.next.boot.mybatis.stream.FetchSizeTuner;
+
+@Intercepts({
+    @Signature(
+            type = StatementHandler.class,
+            method = "prepare",
+            args = {Connection.class, Integer.class}),
+    @Signature(
+            type = ResultSetHandler.class,
+            method = "handleCursorResultSets",
+            args = {Statement.class})
+})
+public class StreamingInterceptor implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        FetchSizeTuner tuner = FetchSizeTuner.preparing();
+        Object result = invocation.proceed();
+        if (tuner == null) {
+            return result;
+        }
+        if (invocation.getTarget() instanceof StatementHandler) {
+            tuner.onStatement((Statement) result);
+        } else {
+            tuner.onResultSet(((Statement) invocation.getArgs()[0]).getResultSet());
+        }
+        return result;
+    }
+}
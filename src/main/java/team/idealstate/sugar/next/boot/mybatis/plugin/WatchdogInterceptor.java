@@ -0,0 +1,90 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import team.idealstate.sugar.next.boot.mybatis.transaction.TransactionWatchdog;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+@Intercepts({
+    @Signature(
+            type = Executor.class,
+            method = "query",
+            args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(
+            type = Executor.class,
+            method = "query",
+            args = {
+                MappedStatement.class,
+                Object.class,
+                RowBounds.class,
+                ResultHandler.class,
+                CacheKey.class,
+                BoundSql.class
+            }),
+    @Signature(
+            type = Executor.class,
+            method = "queryCursor",
+            args = {MappedStatement.class, Object.class, RowBounds.class}),
+    @Signature(
+            type = Executor.class,
+            method = "update",
+            args = {MappedStatement.class, Object.class}),
+    @Signature(
+            type = StatementHandler.class,
+            method = "prepare",
+            args = {Connection.class, Integer.class})
+})
+public class WatchdogInterceptor implements Interceptor {
+
+    private final TransactionWatchdog watchdog;
+
+    public WatchdogInterceptor(@NotNull TransactionWatchdog watchdog) {
+        Validation.notNull(watchdog, "Watchdog must not be null.");
+        this.watchdog = watchdog;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (invocation.getTarget() instanceof Executor) {
+            watchdog.onStatement(((MappedStatement) invocation.getArgs()[0]).getId());
+            return invocation.proceed();
+        }
+        int timeout = watchdog.getQueryTimeout();
+        Statement statement = (Statement) invocation.proceed();
+        if (timeout > 0) {
+            int queryTimeout = statement.getQueryTimeout();
+            if (queryTimeout == 0 || queryTimeout > timeout) {
+                statement.setQueryTimeout(timeout);
+            }
+        }
+        return statement;
+    }
+}
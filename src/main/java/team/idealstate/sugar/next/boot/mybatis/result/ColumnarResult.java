@@ -0,0 +1,153 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.result;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class ColumnarResult implements Serializable {
+    private static final long serialVersionUID = -3216847301925472831L;
+
+    static final ColumnarResult EMPTY = new ColumnarResult(new String[0], new Object[0], new BitSet[0], 0);
+
+    private final String[] names;
+    private final Object[] columns;
+    private final BitSet[] nulls;
+    private final int size;
+
+    ColumnarResult(@NotNull String[] names, @NotNull Object[] columns, @NotNull BitSet[] nulls, int size) {
+        this.names = names;
+        this.columns = columns;
+        this.nulls = nulls;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    @NotNull
+    public String getColumnName(int column) {
+        return names[column];
+    }
+
+    public int indexOf(@NotNull String name) {
+        Validation.notNull(name, "Name must not be null.");
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isNull(int row, int column) {
+        checkRow(row);
+        BitSet columnNulls = nulls[column];
+        if (columnNulls != null) {
+            return columnNulls.get(row);
+        }
+        return ((Object[]) columns[column])[row] == null;
+    }
+
+    public long getLong(int row, int column) {
+        checkRow(row);
+        Object values = columns[column];
+        if (values instanceof long[]) {
+            return ((long[]) values)[row];
+        }
+        if (values instanceof double[]) {
+            return (long) ((double[]) values)[row];
+        }
+        Object value = ((Object[]) values)[row];
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    public int getInt(int row, int column) {
+        return (int) getLong(row, column);
+    }
+
+    public double getDouble(int row, int column) {
+        checkRow(row);
+        Object values = columns[column];
+        if (values instanceof double[]) {
+            return ((double[]) values)[row];
+        }
+        if (values instanceof long[]) {
+            return ((long[]) values)[row];
+        }
+        Object value = ((Object[]) values)[row];
+        return value == null ? 0D : ((Number) value).doubleValue();
+    }
+
+    public Object getObject(int row, int column) {
+        if (isNull(row, column)) {
+            return null;
+        }
+        Object values = columns[column];
+        if (values instanceof long[]) {
+            return ((long[]) values)[row];
+        }
+        if (values instanceof double[]) {
+            return ((double[]) values)[row];
+        }
+        return ((Object[]) values)[row];
+    }
+
+    @NotNull
+    public long[] getLongs(int column) {
+        Object values = columns[column];
+        Validation.is(values instanceof long[], String.format("Column '%s' is not a long column.", names[column]));
+        return ((long[]) values).clone();
+    }
+
+    @NotNull
+    public double[] getDoubles(int column) {
+        Object values = columns[column];
+        Validation.is(values instanceof double[], String.format("Column '%s' is not a double column.", names[column]));
+        return ((double[]) values).clone();
+    }
+
+    @NotNull
+    public Object[] getObjects(int column) {
+        Object values = columns[column];
+        Validation.is(values instanceof Object[], String.format("Column '%s' is not an object column.", names[column]));
+        return ((Object[]) values).clone();
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException(String.format("Row: %s, Size: %s", row, size));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarResult{columns=" + Arrays.toString(names) + ", size=" + size + '}';
+    }
+}
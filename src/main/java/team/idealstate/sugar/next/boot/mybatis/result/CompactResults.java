@@ -0,0 +1,167 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.result;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class CompactResults {
+
+    private static final Set<Class<?>> COMPACT_TYPES = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(long[].class, int[].class, double[].class, ColumnarResult.class)));
+    private static final int INITIAL_CAPACITY = 16;
+
+    private CompactResults() {}
+
+    public static boolean isCompact(Class<?> type) {
+        return type != null && COMPACT_TYPES.contains(type);
+    }
+
+    @NotNull
+    public static Object empty(@NotNull Class<?> type) {
+        Validation.is(isCompact(type), "Type must be a compact result type.");
+        if (long[].class.equals(type)) {
+            return new long[0];
+        }
+        if (int[].class.equals(type)) {
+            return new int[0];
+        }
+        if (double[].class.equals(type)) {
+            return new double[0];
+        }
+        return ColumnarResult.EMPTY;
+    }
+
+    @NotNull
+    public static Object read(@NotNull ResultSet resultSet, @NotNull Class<?> type) throws SQLException {
+        Validation.notNull(resultSet, "Result set must not be null.");
+        Validation.is(isCompact(type), "Type must be a compact result type.");
+        if (long[].class.equals(type)) {
+            long[] values = new long[INITIAL_CAPACITY];
+            int size = 0;
+            while (resultSet.next()) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size << 1);
+                }
+                values[size++] = resultSet.getLong(1);
+            }
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+        if (int[].class.equals(type)) {
+            int[] values = new int[INITIAL_CAPACITY];
+            int size = 0;
+            while (resultSet.next()) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size << 1);
+                }
+                values[size++] = resultSet.getInt(1);
+            }
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+        if (double[].class.equals(type)) {
+            double[] values = new double[INITIAL_CAPACITY];
+            int size = 0;
+            while (resultSet.next()) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size << 1);
+                }
+                values[size++] = resultSet.getDouble(1);
+            }
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+        return readColumnar(resultSet);
+    }
+
+    @NotNull
+    private static ColumnarResult readColumnar(@NotNull ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] names = new String[columnCount];
+        Object[] columns = new Object[columnCount];
+        BitSet[] nulls = new BitSet[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            names[i] = metaData.getColumnLabel(i + 1);
+            switch (metaData.getColumnType(i + 1)) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    columns[i] = new long[INITIAL_CAPACITY];
+                    nulls[i] = new BitSet();
+                    break;
+                case Types.REAL:
+                case Types.FLOAT:
+                case Types.DOUBLE:
+                    columns[i] = new double[INITIAL_CAPACITY];
+                    nulls[i] = new BitSet();
+                    break;
+                default:
+                    columns[i] = new Object[INITIAL_CAPACITY];
+                    break;
+            }
+        }
+        int size = 0;
+        int capacity = INITIAL_CAPACITY;
+        while (resultSet.next()) {
+            if (size == capacity) {
+                capacity = size << 1;
+                resize(columns, capacity);
+            }
+            for (int i = 0; i < columnCount; i++) {
+                Object values = columns[i];
+                if (values instanceof long[]) {
+                    ((long[]) values)[size] = resultSet.getLong(i + 1);
+                } else if (values instanceof double[]) {
+                    ((double[]) values)[size] = resultSet.getDouble(i + 1);
+                } else {
+                    ((Object[]) values)[size] = resultSet.getObject(i + 1);
+                    continue;
+                }
+                if (resultSet.wasNull()) {
+                    nulls[i].set(size);
+                }
+            }
+            size++;
+        }
+        if (size != capacity) {
+            resize(columns, size);
+        }
+        return new ColumnarResult(names, columns, nulls, size);
+    }
+
+    private static void resize(@NotNull Object[] columns, int capacity) {
+        for (int i = 0; i < columns.length; i++) {
+            Object values = columns[i];
+            if (values instanceof long[]) {
+                columns[i] = Arrays.copyOf((long[]) values, capacity);
+            } else if (values instanceof double[]) {
+                columns[i] = Arrays.copyOf((double[]) values, capacity);
+            } else {
+                columns[i] = Arrays.copyOf((Object[]) values, capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.result;
+
+import lombok.Getter;
+import org.apache.ibatis.session.RowBounds;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+@Getter
+public final class CompactRowBounds extends RowBounds {
+
+    private final Class<?> resultType;
+
+    public CompactRowBounds(@NotNull Class<?> resultType) {
+        Validation.is(CompactResults.isCompact(resultType), "Result type must be a compact result type.");
+        this.resultType = resultType;
+    }
+}
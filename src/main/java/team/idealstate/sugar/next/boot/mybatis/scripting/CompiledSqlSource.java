@@ -0,0 +1,590 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.scripting;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
+import org.apache.ibatis.scripting.xmltags.DynamicContext;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.ExpressionEvaluator;
+import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
+import org.apache.ibatis.scripting.xmltags.IfSqlNode;
+import org.apache.ibatis.scripting.xmltags.MixedSqlNode;
+import org.apache.ibatis.scripting.xmltags.SqlNode;
+import org.apache.ibatis.scripting.xmltags.StaticTextSqlNode;
+import org.apache.ibatis.scripting.xmltags.TrimSqlNode;
+import org.apache.ibatis.session.Configuration;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+final class CompiledSqlSource implements SqlSource {
+
+    private static final int SIMPLE = 0;
+    private static final int STRICT = 1;
+    private static final int EXACT = 2;
+    private static final Shape UNCACHEABLE = new Shape(null, null, null);
+    private static final Pattern UNSUPPORTED_EXPRESSION = Pattern.compile("[@#\\[{]|\\bnew\\b|(?<![=!<>])=(?!=)");
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'|\"(?:[^\"\\\\]|\\\\.)*\"");
+    private static final String PATH = "(?<![\\w$.)'])(?!(?:and|or|not|null|true|false|eq|neq|gt|gte|lt|lte)\\b)"
+            + "[A-Za-z_$][\\w$]*(?:\\.[A-Za-z_$][\\w$]*)*";
+    private static final String EQUALITY = "(?:==|!=|\\beq\\b|\\bneq\\b)";
+    private static final Pattern SIMPLE_ATOM = Pattern.compile(PATH + "\\s*" + EQUALITY + "\\s*(?:null\\b|'')"
+            + "|(?:\\bnull|'')\\s*" + EQUALITY + "\\s*" + PATH
+            + "|" + PATH + "\\.size\\(\\)\\s*(?:>|==|!=|\\bgt\\b|\\beq\\b|\\bneq\\b)\\s*0(?![\\w$.])"
+            + "|" + PATH + "\\.isEmpty\\(\\)"
+            + "|" + PATH + "(?![\\w$.(])");
+    private static final Pattern CONNECTIVE =
+            Pattern.compile("\\band\\b|\\bor\\b|\\bnot\\b|&&|\\|\\||!|\\(|\\)|\\bX\\b");
+    private static final Pattern REFERENCE = Pattern.compile("(" + PATH + ")(\\s*\\()?");
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "and", "or", "not", "null", "true", "false", "eq", "neq", "gt", "gte", "lt", "lte", "instanceof", "in",
+            "shl", "shr", "ushr", "band", "bor", "xor"));
+    private static final Set<String> SIZE_METHODS = new HashSet<>(Arrays.asList("size", "isEmpty"));
+    private static final Set<String> EXACT_METHODS = new HashSet<>(Arrays.asList(
+            "length", "trim", "equals", "equalsIgnoreCase", "toString", "toUpperCase", "toLowerCase",
+            "startsWith", "endsWith"));
+    private static final Set<String> RESERVED_SEGMENTS =
+            new HashSet<>(Arrays.asList("size", "isEmpty", "keys", "values", "length", "class"));
+    private static final Field CONFIGURATION_FIELD;
+    private static final Field ROOT_SQL_NODE_FIELD;
+    private static final Field MIXED_CONTENTS_FIELD;
+    private static final Field TRIM_CONTENTS_FIELD;
+    private static final Field IF_TEST_FIELD;
+    private static final Field IF_CONTENTS_FIELD;
+    private static final Field CHOOSE_IF_SQL_NODES_FIELD;
+    private static final Field CHOOSE_DEFAULT_SQL_NODE_FIELD;
+    private static final Field FOREACH_COLLECTION_EXPRESSION_FIELD;
+    private static final Field FOREACH_CONTENTS_FIELD;
+    private static final Field FOREACH_ITEM_FIELD;
+    private static final Field FOREACH_INDEX_FIELD;
+    private static final Field ADDITIONAL_PARAMETERS_FIELD;
+
+    static {
+        try {
+            CONFIGURATION_FIELD = getField(DynamicSqlSource.class, "configuration");
+            ROOT_SQL_NODE_FIELD = getField(DynamicSqlSource.class, "rootSqlNode");
+            MIXED_CONTENTS_FIELD = getField(MixedSqlNode.class, "contents");
+            TRIM_CONTENTS_FIELD = getField(TrimSqlNode.class, "contents");
+            IF_TEST_FIELD = getField(IfSqlNode.class, "test");
+            IF_CONTENTS_FIELD = getField(IfSqlNode.class, "contents");
+            CHOOSE_IF_SQL_NODES_FIELD = getField(ChooseSqlNode.class, "ifSqlNodes");
+            CHOOSE_DEFAULT_SQL_NODE_FIELD = getField(ChooseSqlNode.class, "defaultSqlNode");
+            FOREACH_COLLECTION_EXPRESSION_FIELD = getField(ForEachSqlNode.class, "collectionExpression");
+            FOREACH_CONTENTS_FIELD = getField(ForEachSqlNode.class, "contents");
+            FOREACH_ITEM_FIELD = getField(ForEachSqlNode.class, "item");
+            FOREACH_INDEX_FIELD = getField(ForEachSqlNode.class, "index");
+            ADDITIONAL_PARAMETERS_FIELD = getField(BoundSql.class, "additionalParameters");
+        } catch (NoSuchFieldException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    private final Configuration configuration;
+    private final DynamicSqlSource delegate;
+    private final SqlNode rootSqlNode;
+    private final String[] paths;
+    private final int[] modes;
+    private final Map<SqlNode, Integer> loops;
+    private final String[] loopPaths;
+    private final String[] items;
+    private final String[] indexes;
+    private final int maxShapes;
+    private final ExpressionEvaluator evaluator = new ExpressionEvaluator();
+    private final Map<List<Object>, Shape> shapes = new ConcurrentHashMap<>();
+
+    private CompiledSqlSource(
+            @NotNull Configuration configuration,
+            @NotNull DynamicSqlSource delegate,
+            @NotNull SqlNode rootSqlNode,
+            @NotNull Analysis analysis,
+            int maxShapes) {
+        this.configuration = configuration;
+        this.delegate = delegate;
+        this.rootSqlNode = rootSqlNode;
+        this.paths = analysis.paths.keySet().toArray(new String[0]);
+        this.modes = new int[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            modes[i] = analysis.paths.get(paths[i]);
+        }
+        this.loops = analysis.loops;
+        this.loopPaths = analysis.loopPaths.toArray(new String[0]);
+        this.items = analysis.items.toArray(new String[0]);
+        this.indexes = analysis.indexes.toArray(new String[0]);
+        this.maxShapes = maxShapes;
+    }
+
+    @Nullable
+    static CompiledSqlSource of(@NotNull DynamicSqlSource sqlSource, int maxShapes) {
+        Validation.notNull(sqlSource, "Sql source must not be null.");
+        Validation.is(maxShapes > 0, "Max shapes must be greater than 0.");
+        try {
+            Configuration configuration = (Configuration) CONFIGURATION_FIELD.get(sqlSource);
+            SqlNode rootSqlNode = (SqlNode) ROOT_SQL_NODE_FIELD.get(sqlSource);
+            Analysis analysis = new Analysis();
+            if (!analysis.visit(rootSqlNode, false)) {
+                return null;
+            }
+            return new CompiledSqlSource(configuration, sqlSource, rootSqlNode, analysis, maxShapes);
+        } catch (IllegalAccessException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    @Override
+    public BoundSql getBoundSql(Object parameterObject) {
+        Object[] collections = new Object[loopPaths.length];
+        List<Object> signature = signature(parameterObject, collections);
+        if (signature == null) {
+            return delegate.getBoundSql(parameterObject);
+        }
+        Shape shape = shapes.get(signature);
+        if (shape != null) {
+            if (shape == UNCACHEABLE) {
+                return delegate.getBoundSql(parameterObject);
+            }
+            if (!shape.verified) {
+                return verify(signature, shape, parameterObject, collections);
+            }
+            return bind(shape, parameterObject, collections);
+        }
+        BoundSql boundSql = delegate.getBoundSql(parameterObject);
+        if (shapes.size() < maxShapes) {
+            shapes.putIfAbsent(signature, compile(boundSql, parameterObject, collections));
+        }
+        return boundSql;
+    }
+
+    @NotNull
+    private BoundSql bind(@NotNull Shape shape, Object parameterObject, @NotNull Object[] collections) {
+        BoundSql boundSql = new BoundSql(configuration, shape.sql, shape.parameterMappings, parameterObject);
+        boundSql.setAdditionalParameter(DynamicContext.PARAMETER_OBJECT_KEY, parameterObject);
+        boundSql.setAdditionalParameter(DynamicContext.DATABASE_ID_KEY, configuration.getDatabaseId());
+        int number = 0;
+        for (int loop : shape.loops) {
+            Object collection = collections[loop];
+            if (collection == null) {
+                continue;
+            }
+            String item = items[loop];
+            String index = indexes[loop];
+            int i = 0;
+            for (Object element : (Iterable<?>) collection) {
+                Object key = i;
+                Object value = element;
+                if (element instanceof Map.Entry) {
+                    key = ((Map.Entry<?, ?>) element).getKey();
+                    value = ((Map.Entry<?, ?>) element).getValue();
+                }
+                if (index != null) {
+                    boundSql.setAdditionalParameter(ForEachSqlNode.ITEM_PREFIX + index + "_" + number, key);
+                }
+                if (item != null) {
+                    boundSql.setAdditionalParameter(ForEachSqlNode.ITEM_PREFIX + item + "_" + number, value);
+                }
+                number++;
+                i++;
+            }
+        }
+        return boundSql;
+    }
+
+    @NotNull
+    private Shape compile(@NotNull BoundSql boundSql, Object parameterObject, @NotNull Object[] collections) {
+        List<Integer> executed = new ArrayList<>(loopPaths.length);
+        try {
+            walk(rootSqlNode, new DynamicContext(configuration, parameterObject).getBindings(), executed);
+        } catch (IllegalAccessException e) {
+            throw new MyBatisException(e);
+        } catch (RuntimeException e) {
+            return UNCACHEABLE;
+        }
+        int[] loops = new int[executed.size()];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = executed.get(i);
+        }
+        Shape shape = new Shape(
+                boundSql.getSql(),
+                Collections.unmodifiableList(new ArrayList<>(boundSql.getParameterMappings())),
+                loops);
+        if (!matches(boundSql, bind(shape, parameterObject, collections))) {
+            Log.debug(() -> String.format("Dynamic sql shape is not compilable: %s", boundSql.getSql()));
+            return UNCACHEABLE;
+        }
+        return shape;
+    }
+
+    @NotNull
+    private BoundSql verify(
+            @NotNull List<Object> signature,
+            @NotNull Shape shape,
+            Object parameterObject,
+            @NotNull Object[] collections) {
+        BoundSql boundSql = delegate.getBoundSql(parameterObject);
+        if (matches(boundSql, bind(shape, parameterObject, collections))) {
+            shape.verified = true;
+        } else {
+            Log.debug(() -> String.format("Dynamic sql shape is not reusable: %s", boundSql.getSql()));
+            shapes.put(signature, UNCACHEABLE);
+        }
+        return boundSql;
+    }
+
+    private static boolean matches(@NotNull BoundSql expected, @NotNull BoundSql actual) {
+        if (!expected.getSql().equals(actual.getSql())) {
+            return false;
+        }
+        List<ParameterMapping> expectedMappings = expected.getParameterMappings();
+        List<ParameterMapping> actualMappings = actual.getParameterMappings();
+        if (expectedMappings.size() != actualMappings.size()) {
+            return false;
+        }
+        for (int i = 0; i < expectedMappings.size(); i++) {
+            if (!expectedMappings.get(i).getProperty().equals(actualMappings.get(i).getProperty())) {
+                return false;
+            }
+        }
+        try {
+            return ADDITIONAL_PARAMETERS_FIELD.get(expected).equals(ADDITIONAL_PARAMETERS_FIELD.get(actual));
+        } catch (IllegalAccessException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    private boolean walk(@NotNull SqlNode node, @NotNull Map<String, Object> bindings, @NotNull List<Integer> executed)
+            throws IllegalAccessException {
+        if (node instanceof MixedSqlNode) {
+            for (Object content : (List<?>) MIXED_CONTENTS_FIELD.get(node)) {
+                walk((SqlNode) content, bindings, executed);
+            }
+        } else if (node instanceof TrimSqlNode) {
+            walk((SqlNode) TRIM_CONTENTS_FIELD.get(node), bindings, executed);
+        } else if (node instanceof IfSqlNode) {
+            if (!evaluator.evaluateBoolean((String) IF_TEST_FIELD.get(node), bindings)) {
+                return false;
+            }
+            walk((SqlNode) IF_CONTENTS_FIELD.get(node), bindings, executed);
+        } else if (node instanceof ChooseSqlNode) {
+            for (Object when : (List<?>) CHOOSE_IF_SQL_NODES_FIELD.get(node)) {
+                if (walk((SqlNode) when, bindings, executed)) {
+                    return true;
+                }
+            }
+            SqlNode otherwise = (SqlNode) CHOOSE_DEFAULT_SQL_NODE_FIELD.get(node);
+            if (otherwise != null) {
+                walk(otherwise, bindings, executed);
+            }
+        } else if (node instanceof ForEachSqlNode) {
+            executed.add(loops.get(node));
+        }
+        return true;
+    }
+
+    @Nullable
+    private List<Object> signature(Object parameterObject, @NotNull Object[] collections) {
+        List<Object> signature = new ArrayList<>(paths.length + loopPaths.length * 4 + 1);
+        signature.add(parameterObject == null ? Token.NULL : parameterObject.getClass());
+        MetaObject metaParameter = parameterObject == null || parameterObject instanceof Map
+                ? null
+                : configuration.newMetaObject(parameterObject);
+        boolean fallback = metaParameter != null
+                && configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
+        try {
+            for (int i = 0; i < paths.length; i++) {
+                Object value = classify(resolve(parameterObject, metaParameter, fallback, paths[i]), modes[i]);
+                if (value == Token.UNCACHEABLE) {
+                    return null;
+                }
+                signature.add(value);
+            }
+            for (int i = 0; i < loopPaths.length; i++) {
+                Object collection = resolve(parameterObject, metaParameter, fallback, loopPaths[i]);
+                if (collection == null) {
+                    signature.add(Token.NULL);
+                    continue;
+                }
+                if (collection instanceof Map) {
+                    collection = ((Map<?, ?>) collection).entrySet();
+                } else if (collection.getClass().isArray()) {
+                    int length = Array.getLength(collection);
+                    List<Object> elements = new ArrayList<>(length);
+                    for (int j = 0; j < length; j++) {
+                        elements.add(Array.get(collection, j));
+                    }
+                    collection = elements;
+                } else if (!(collection instanceof Iterable)) {
+                    return null;
+                }
+                collections[i] = collection;
+                int at = signature.size();
+                signature.add(null);
+                int size = 0;
+                for (Object element : (Iterable<?>) collection) {
+                    if (element instanceof Map.Entry) {
+                        signature.add(typeOf(((Map.Entry<?, ?>) element).getKey()));
+                        signature.add(typeOf(((Map.Entry<?, ?>) element).getValue()));
+                    } else {
+                        signature.add(typeOf(element));
+                    }
+                    size++;
+                }
+                signature.set(at, size);
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return signature;
+    }
+
+    private Object resolve(Object parameterObject, MetaObject metaParameter, boolean fallback, @NotNull String path) {
+        int dot = path.indexOf('.');
+        String name = dot < 0 ? path : path.substring(0, dot);
+        Object value;
+        if (DynamicContext.PARAMETER_OBJECT_KEY.equals(name)) {
+            value = parameterObject;
+        } else if (DynamicContext.DATABASE_ID_KEY.equals(name)) {
+            value = configuration.getDatabaseId();
+        } else if (parameterObject == null) {
+            value = null;
+        } else if (parameterObject instanceof Map) {
+            value = ((Map<?, ?>) parameterObject).get(name);
+        } else if (fallback && !metaParameter.hasGetter(name)) {
+            value = parameterObject;
+        } else {
+            value = metaParameter.getValue(name);
+        }
+        if (dot < 0 || value == null) {
+            return value;
+        }
+        return configuration.newMetaObject(value).getValue(path.substring(dot + 1));
+    }
+
+    @NotNull
+    private static Object classify(Object value, int mode) {
+        if (value == null) {
+            return Token.NULL;
+        }
+        if (value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+            return value;
+        }
+        if (value instanceof Number) {
+            if (mode != SIMPLE) {
+                return value;
+            }
+            return isZero((Number) value) ? Token.ZERO : Token.NON_ZERO;
+        }
+        if (value instanceof CharSequence) {
+            if (mode != SIMPLE) {
+                return value.toString();
+            }
+            return ((CharSequence) value).length() == 0 ? Token.EMPTY : Token.NON_EMPTY;
+        }
+        int size = -1;
+        if (value instanceof Collection) {
+            size = ((Collection<?>) value).size();
+        } else if (value instanceof Map) {
+            size = ((Map<?, ?>) value).size();
+        } else if (value.getClass().isArray()) {
+            size = Array.getLength(value);
+        }
+        if (size >= 0) {
+            if (mode == EXACT) {
+                return Token.UNCACHEABLE;
+            }
+            return mode == STRICT ? (Object) size : (size == 0 ? Token.EMPTY : Token.NON_EMPTY);
+        }
+        if (mode == SIMPLE) {
+            return Token.NON_NULL;
+        }
+        return value instanceof Comparable ? value : Token.UNCACHEABLE;
+    }
+
+    private static boolean isZero(@NotNull Number number) {
+        if (number instanceof Double || number instanceof Float) {
+            return number.doubleValue() == 0;
+        }
+        try {
+            return new BigDecimal(number.toString()).signum() == 0;
+        } catch (NumberFormatException e) {
+            return number.doubleValue() == 0;
+        }
+    }
+
+    @NotNull
+    private static Object typeOf(Object value) {
+        return value == null ? Token.NULL : value.getClass();
+    }
+
+    @NotNull
+    private static Field getField(@NotNull Class<?> type, @NotNull String name) throws NoSuchFieldException {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    private enum Token {
+        NULL,
+        NON_NULL,
+        EMPTY,
+        NON_EMPTY,
+        ZERO,
+        NON_ZERO,
+        UNCACHEABLE
+    }
+
+    @RequiredArgsConstructor
+    private static final class Shape {
+        private final String sql;
+        private final List<ParameterMapping> parameterMappings;
+        private final int[] loops;
+        private volatile boolean verified;
+    }
+
+    private static final class Analysis {
+        private final Map<String, Integer> paths = new LinkedHashMap<>();
+        private final Map<SqlNode, Integer> loops = new IdentityHashMap<>();
+        private final List<String> loopPaths = new ArrayList<>();
+        private final List<String> items = new ArrayList<>();
+        private final List<String> indexes = new ArrayList<>();
+
+        private boolean visit(@NotNull SqlNode node, boolean inLoop) throws IllegalAccessException {
+            if (node instanceof StaticTextSqlNode) {
+                return true;
+            }
+            if (node instanceof MixedSqlNode) {
+                for (Object content : (List<?>) MIXED_CONTENTS_FIELD.get(node)) {
+                    if (!visit((SqlNode) content, inLoop)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (node instanceof TrimSqlNode) {
+                return visit((SqlNode) TRIM_CONTENTS_FIELD.get(node), inLoop);
+            }
+            if (node instanceof IfSqlNode) {
+                return !inLoop
+                        && addTest((String) IF_TEST_FIELD.get(node))
+                        && visit((SqlNode) IF_CONTENTS_FIELD.get(node), false);
+            }
+            if (node instanceof ChooseSqlNode) {
+                if (inLoop) {
+                    return false;
+                }
+                for (Object when : (List<?>) CHOOSE_IF_SQL_NODES_FIELD.get(node)) {
+                    if (!visit((SqlNode) when, false)) {
+                        return false;
+                    }
+                }
+                SqlNode otherwise = (SqlNode) CHOOSE_DEFAULT_SQL_NODE_FIELD.get(node);
+                return otherwise == null || visit(otherwise, false);
+            }
+            if (node instanceof ForEachSqlNode) {
+                String expression = (String) FOREACH_COLLECTION_EXPRESSION_FIELD.get(node);
+                String item = (String) FOREACH_ITEM_FIELD.get(node);
+                String index = (String) FOREACH_INDEX_FIELD.get(node);
+                if (inLoop || expression == null || (item == null && index == null) || !isPath(expression.trim())) {
+                    return false;
+                }
+                loops.put(node, loopPaths.size());
+                loopPaths.add(expression.trim());
+                items.add(item);
+                indexes.add(index);
+                return visit((SqlNode) FOREACH_CONTENTS_FIELD.get(node), true);
+            }
+            return false;
+        }
+
+        private boolean addTest(String test) {
+            if (test == null || UNSUPPORTED_EXPRESSION.matcher(test).find()) {
+                return false;
+            }
+            StringBuffer normalized = new StringBuffer(test.length());
+            Matcher literal = LITERAL.matcher(test);
+            while (literal.find()) {
+                literal.appendReplacement(normalized, literal.group().length() == 2 ? "''" : "'x'");
+            }
+            literal.appendTail(normalized);
+            String expression = normalized.toString();
+            String reduced = CONNECTIVE
+                    .matcher(SIMPLE_ATOM.matcher(expression).replaceAll(" X "))
+                    .replaceAll(" ");
+            int mode = reduced.trim().isEmpty() ? SIMPLE : STRICT;
+            Matcher reference = REFERENCE.matcher(expression.replace("'x'", "   "));
+            while (reference.find()) {
+                String path = reference.group(1);
+                if (KEYWORDS.contains(path)) {
+                    continue;
+                }
+                int pathMode = mode;
+                if (reference.group(2) != null) {
+                    int dot = path.lastIndexOf('.');
+                    if (dot < 0) {
+                        return false;
+                    }
+                    String method = path.substring(dot + 1);
+                    path = path.substring(0, dot);
+                    if (EXACT_METHODS.contains(method)) {
+                        pathMode = EXACT;
+                    } else if (!SIZE_METHODS.contains(method)) {
+                        return false;
+                    }
+                }
+                if (!isPath(path)) {
+                    return false;
+                }
+                paths.merge(path, pathMode, Math::max);
+            }
+            return true;
+        }
+
+        private static boolean isPath(@NotNull String path) {
+            if (!path.matches("[A-Za-z_$][\\w$]*(?:\\.[A-Za-z_$][\\w$]*)*")) {
+                return false;
+            }
+            String[] segments = path.split("\\.");
+            for (int i = 1; i < segments.length; i++) {
+                if (RESERVED_SEGMENTS.contains(segments[i])) {
+                    return false;
+                }
+            }
+            return !KEYWORDS.contains(segments[0]);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.scripting;
+
+import org.apache.ibatis.session.Configuration;
+import team.idealstate.sugar.next.boot.mybatis.spi.MyBatisConfigurationBuilder;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public class CompiledSqlSourceBuilder implements MyBatisConfigurationBuilder {
+
+    private static final int DEFAULT_MAX_SHAPES = 256;
+
+    private final int maxShapes;
+
+    public CompiledSqlSourceBuilder() {
+        this(DEFAULT_MAX_SHAPES);
+    }
+
+    public CompiledSqlSourceBuilder(int maxShapes) {
+        Validation.is(maxShapes > 0, "Max shapes must be greater than 0.");
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public void build(@NotNull Configuration configuration) {
+        Validation.notNull(configuration, "Configuration must not be null.");
+        configuration.addInterceptor(new CompiledSqlSourceInterceptor(maxShapes));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.scripting;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.validate.Validation;
+
+@Intercepts({
+    @Signature(
+            type = Executor.class,
+            method = "query",
+            args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(
+            type = Executor.class,
+            method = "queryCursor",
+            args = {MappedStatement.class, Object.class, RowBounds.class}),
+    @Signature(
+            type = Executor.class,
+            method = "update",
+            args = {MappedStatement.class, Object.class})
+})
+final class CompiledSqlSourceInterceptor implements Interceptor {
+
+    private static final Field SQL_SOURCE_FIELD;
+
+    static {
+        try {
+            SQL_SOURCE_FIELD = MappedStatement.class.getDeclaredField("sqlSource");
+            SQL_SOURCE_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new MyBatisException(e);
+        }
+    }
+
+    private final int maxShapes;
+    private final Map<String, SqlSource> sqlSources = new ConcurrentHashMap<>();
+
+    CompiledSqlSourceInterceptor(int maxShapes) {
+        Validation.is(maxShapes > 0, "Max shapes must be greater than 0.");
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        SqlSource sqlSource = ms.getSqlSource();
+        if (sqlSource instanceof DynamicSqlSource) {
+            SqlSource compiled = sqlSources.computeIfAbsent(ms.getId(), id -> {
+                CompiledSqlSource compiledSqlSource = CompiledSqlSource.of((DynamicSqlSource) sqlSource, maxShapes);
+                if (compiledSqlSource == null) {
+                    Log.debug(() -> String.format("Dynamic sql of '%s' is not compilable.", id));
+                    return sqlSource;
+                }
+                return compiledSqlSource;
+            });
+            if (compiled != sqlSource && compiled instanceof CompiledSqlSource) {
+                SQL_SOURCE_FIELD.set(ms, compiled);
+            }
+        }
+        return invocation.proceed();
+    }
+}
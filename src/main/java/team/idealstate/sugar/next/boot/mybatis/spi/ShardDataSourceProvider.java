@@ -0,0 +1,33 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.spi;
+
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public interface ShardDataSourceProvider {
+
+    @NotNull
+    Map<String, DataSource> getDataSources();
+
+    @NotNull
+    default String getShard(@NotNull Object key, @NotNull List<String> shards) {
+        return shards.get(Math.floorMod(key.hashCode(), shards.size()));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.stream;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+public final class FetchSizeTuner {
+
+    private static final ThreadLocal<FetchSizeTuner> PREPARING = new ThreadLocal<>();
+
+    private final int maxFetchSize;
+    private int fetchSize;
+    private int remaining;
+    private boolean fixed;
+    private ResultSet resultSet;
+
+    public FetchSizeTuner(int fetchSize, int maxFetchSize) {
+        Validation.is(fetchSize > 0, "Fetch size must be greater than 0.");
+        Validation.is(maxFetchSize >= fetchSize, "Max fetch size must not be less than fetch size.");
+        this.fetchSize = fetchSize;
+        this.maxFetchSize = maxFetchSize;
+        this.remaining = fetchSize;
+    }
+
+    @Nullable
+    public static FetchSizeTuner preparing() {
+        return PREPARING.get();
+    }
+
+    public <T> T prepare(@NotNull Supplier<T> supplier) {
+        Validation.notNull(supplier, "Supplier must not be null.");
+        PREPARING.set(this);
+        try {
+            return supplier.get();
+        } finally {
+            PREPARING.remove();
+        }
+    }
+
+    public void onStatement(@NotNull Statement statement) throws SQLException {
+        int current = statement.getFetchSize();
+        if (current > 0) {
+            this.fetchSize = current;
+            this.fixed = true;
+        } else {
+            statement.setFetchSize(fetchSize);
+        }
+        this.remaining = fetchSize;
+    }
+
+    public void onResultSet(@Nullable ResultSet resultSet) {
+        this.resultSet = resultSet;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void onNext() {
+        if (--remaining > 0) {
+            return;
+        }
+        ResultSet resultSet = this.resultSet;
+        if (!fixed && resultSet != null && fetchSize < maxFetchSize) {
+            int next = (int) Math.min(maxFetchSize, fetchSize * 2L);
+            try {
+                resultSet.setFetchSize(next);
+                this.fetchSize = next;
+            } catch (SQLException e) {
+                this.fixed = true;
+            }
+        }
+        this.remaining = fetchSize;
+    }
+}
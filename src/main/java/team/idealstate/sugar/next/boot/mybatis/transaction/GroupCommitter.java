@@ -0,0 +1,189 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.transaction;
+
+import static team.idealstate.sugar.next.function.Functional.functional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import lombok.Data;
+import lombok.NonNull;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.MyBatis;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class GroupCommitter {
+
+    private final MyBatis myBatis;
+    private final int executionMode;
+    private final int isolationLevel;
+    private final long window;
+    private final int maxSize;
+    private final Queue<Request> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean leading = new AtomicBoolean();
+    private volatile Thread leader;
+
+    public GroupCommitter(@NotNull MyBatis myBatis, int executionMode, int isolationLevel, long window, int maxSize) {
+        Validation.notNull(myBatis, "MyBatis must not be null.");
+        Validation.is(window >= 0, "Window must not be negative.");
+        Validation.is(maxSize > 0, "Max size must be greater than 0.");
+        this.myBatis = myBatis;
+        this.executionMode = executionMode;
+        this.isolationLevel = isolationLevel;
+        this.window = TimeUnit.MILLISECONDS.toNanos(window);
+        this.maxSize = maxSize;
+    }
+
+    public Object submit(@NotNull Callable<?> callable) throws Throwable {
+        Validation.notNull(callable, "Callable must not be null.");
+        Request request = new Request(callable);
+        requests.add(request);
+        if (size.incrementAndGet() >= maxSize) {
+            Thread leader = this.leader;
+            if (leader != null) {
+                LockSupport.unpark(leader);
+            }
+        }
+        CompletableFuture<Object> future = request.getFuture();
+        boolean interrupted = false;
+        while (!future.isDone()) {
+            if (leading.compareAndSet(false, true)) {
+                leader = Thread.currentThread();
+                try {
+                    lead(future);
+                } finally {
+                    leader = null;
+                    leading.set(false);
+                }
+                continue;
+            }
+            try {
+                future.get(Math.max(window, 1L), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException | TimeoutException ignored) {
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void lead(@NotNull CompletableFuture<Object> own) {
+        while (!own.isDone()) {
+            long deadline = System.nanoTime() + window;
+            for (long remaining = window; remaining > 0 && size.get() < maxSize; ) {
+                LockSupport.parkNanos(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            List<Request> batch = new ArrayList<>(Math.min(size.get(), maxSize));
+            Request request;
+            while (batch.size() < maxSize && (request = requests.poll()) != null) {
+                size.decrementAndGet();
+                batch.add(request);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            commit(batch);
+        }
+    }
+
+    private void commit(@NotNull List<Request> batch) {
+        myBatis.getMetrics().increment("transaction.group.commits");
+        myBatis.getMetrics().add("transaction.group.requests", batch.size());
+        List<Request> committed = new ArrayList<>(batch.size());
+        try {
+            functional(myBatis.openTransaction(executionMode, isolationLevel, MyBatis.PROPAGATION_REQUIRES_NEW))
+                    .use(Object.class, session -> {
+                        for (Request request : batch) {
+                            try {
+                                request.setResult(execute(request.getCallable()));
+                                committed.add(request);
+                            } catch (SavepointRollbackException e) {
+                                session.rollback();
+                                throw e.getCause();
+                            } catch (Throwable e) {
+                                request.getFuture().completeExceptionally(e);
+                            }
+                        }
+                        return null;
+                    });
+        } catch (Throwable e) {
+            Log.debug(() -> String.format("Group commit of %s transactions failed: %s", batch.size(), e));
+            for (Request request : batch) {
+                request.getFuture().completeExceptionally(e);
+            }
+            return;
+        }
+        for (Request request : committed) {
+            request.getFuture().complete(request.getResult());
+        }
+    }
+
+    private Object execute(@NotNull Callable<?> callable) throws Throwable {
+        return functional(myBatis.openTransaction(executionMode, isolationLevel, MyBatis.PROPAGATION_NESTED))
+                .use(Object.class, savepoint -> {
+                    try {
+                        return callable.call();
+                    } catch (Throwable e) {
+                        try {
+                            savepoint.rollback();
+                        } catch (Throwable failure) {
+                            failure.addSuppressed(e);
+                            throw new SavepointRollbackException(failure);
+                        }
+                        throw e;
+                    }
+                });
+    }
+
+    private static final class SavepointRollbackException extends MyBatisException {
+        private static final long serialVersionUID = 4286419657305815329L;
+
+        private SavepointRollbackException(@NotNull Throwable cause) {
+            super(cause);
+        }
+    }
+
+    @Data
+    private static final class Request {
+        @NonNull
+        private final Callable<?> callable;
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private Object result;
+    }
+}
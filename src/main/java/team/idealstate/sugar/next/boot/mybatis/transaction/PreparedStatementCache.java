@@ -0,0 +1,312 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.transaction;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public final class PreparedStatementCache {
+
+    private static final int SWEEP_INTERVAL = 64;
+
+    private final int size;
+    private final Map<Connection, Statements> statements = new ConcurrentHashMap<>();
+    private final AtomicInteger wraps = new AtomicInteger();
+
+    public PreparedStatementCache(int size) {
+        Validation.is(size > 0, "Size must be greater than 0.");
+        this.size = size;
+    }
+
+    @NotNull
+    public Connection wrap(@NotNull Connection connection) {
+        Validation.notNull(connection, "Connection must not be null.");
+        if ((wraps.incrementAndGet() & (SWEEP_INTERVAL - 1)) == 0) {
+            sweep();
+        }
+        Connection physical = unwrap(connection);
+        Statements cached = statements.computeIfAbsent(physical, it -> new Statements(size));
+        return (Connection) Proxy.newProxyInstance(
+                PreparedStatementCache.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                new CachingConnection(connection, physical, cached));
+    }
+
+    public void clear() {
+        Iterator<Statements> iterator = statements.values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().clear();
+            iterator.remove();
+        }
+    }
+
+    private void sweep() {
+        Iterator<Map.Entry<Connection, Statements>> iterator =
+                statements.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Connection, Statements> entry = iterator.next();
+            if (isClosed(entry.getKey())) {
+                iterator.remove();
+                entry.getValue().clear();
+            }
+        }
+    }
+
+    @NotNull
+    private static Connection unwrap(@NotNull Connection connection) {
+        try {
+            if (connection.isWrapperFor(Connection.class)) {
+                Connection physical = connection.unwrap(Connection.class);
+                if (physical != null) {
+                    return physical;
+                }
+            }
+        } catch (SQLException ignored) {
+        }
+        return connection;
+    }
+
+    private static boolean isClosed(@NotNull Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static boolean isClosed(@NotNull Statement statement) {
+        try {
+            return statement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static void closeQuietly(@NotNull Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            Log.debug(() -> String.format("Failed to close cached statement: %s", e.getMessage()));
+        }
+    }
+
+    private static Object invoke(@NotNull Object target, @NotNull Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class StatementKey {
+        private final Object[] arguments;
+    }
+
+    private static final class Statements {
+        private final LinkedHashMap<StatementKey, PreparedStatement> cached;
+
+        private Statements(int size) {
+            this.cached = new LinkedHashMap<StatementKey, PreparedStatement>(16, 0.75F, true) {
+                private static final long serialVersionUID = 2716489573806374021L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+                    if (size() > size) {
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private synchronized PreparedStatement take(@NotNull StatementKey key) {
+            PreparedStatement statement = cached.remove(key);
+            if (statement != null && isClosed(statement)) {
+                return null;
+            }
+            return statement;
+        }
+
+        private synchronized void give(@NotNull StatementKey key, @NotNull PreparedStatement statement) {
+            if (cached.containsKey(key)) {
+                closeQuietly(statement);
+                return;
+            }
+            cached.put(key, statement);
+        }
+
+        private synchronized void clear() {
+            for (PreparedStatement statement : cached.values()) {
+                closeQuietly(statement);
+            }
+            cached.clear();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class CachingConnection implements InvocationHandler {
+        private final Connection connection;
+        private final Connection physical;
+        private final Statements cached;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    StatementKey key = new StatementKey(args);
+                    PreparedStatement statement = cached.take(key);
+                    if (statement == null) {
+                        statement = (PreparedStatement) PreparedStatementCache.invoke(physical, method, args);
+                    }
+                    return Proxy.newProxyInstance(
+                            PreparedStatementCache.class.getClassLoader(),
+                            new Class<?>[] {PreparedStatement.class},
+                            new CachingStatement(key, statement, (Connection) proxy, cached));
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return PreparedStatementCache.invoke(connection, method, args);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class CachingStatement implements InvocationHandler {
+        private final StatementKey key;
+        private final PreparedStatement statement;
+        private final Connection connection;
+        private final Statements cached;
+        private final List<ResultSet> resultSets = new ArrayList<>(1);
+        private Integer fetchSize;
+        private Integer fetchDirection;
+        private Integer maxRows;
+        private Integer maxFieldSize;
+        private Integer queryTimeout;
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "setFetchSize":
+                    if (fetchSize == null) {
+                        fetchSize = statement.getFetchSize();
+                    }
+                    break;
+                case "setFetchDirection":
+                    if (fetchDirection == null) {
+                        fetchDirection = statement.getFetchDirection();
+                    }
+                    break;
+                case "setMaxRows":
+                    if (maxRows == null) {
+                        maxRows = statement.getMaxRows();
+                    }
+                    break;
+                case "setMaxFieldSize":
+                    if (maxFieldSize == null) {
+                        maxFieldSize = statement.getMaxFieldSize();
+                    }
+                    break;
+                case "setQueryTimeout":
+                    if (queryTimeout == null) {
+                        queryTimeout = statement.getQueryTimeout();
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed.");
+            }
+            Object result = PreparedStatementCache.invoke(statement, method, args);
+            if (result instanceof ResultSet) {
+                resultSets.add((ResultSet) result);
+            }
+            return result;
+        }
+
+        private void release() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                for (ResultSet resultSet : resultSets) {
+                    resultSet.close();
+                }
+                resultSets.clear();
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (fetchSize != null) {
+                    statement.setFetchSize(fetchSize);
+                }
+                if (fetchDirection != null) {
+                    statement.setFetchDirection(fetchDirection);
+                }
+                if (maxRows != null) {
+                    statement.setMaxRows(maxRows);
+                }
+                if (maxFieldSize != null) {
+                    statement.setMaxFieldSize(maxFieldSize);
+                }
+                if (queryTimeout != null) {
+                    statement.setQueryTimeout(queryTimeout);
+                }
+            } catch (SQLException e) {
+                closeQuietly(statement);
+                return;
+            }
+            cached.give(key, statement);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.transaction;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import team.idealstate.sugar.next.boot.mybatis.spi.RetryClassifier;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public class SqlStateRetryClassifier implements RetryClassifier {
+
+    private final Set<String> sqlStates;
+
+    public SqlStateRetryClassifier(@NotNull Collection<String> sqlStates) {
+        Validation.notNull(sqlStates, "SQL states must not be null.");
+        this.sqlStates = Collections.unmodifiableSet(new HashSet<>(sqlStates));
+    }
+
+    @Override
+    public boolean isRetryable(@NotNull Throwable throwable) {
+        Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Throwable> chained = Collections.newSetFromMap(new IdentityHashMap<>());
+        Throwable current = throwable;
+        while (current != null && visited.add(current)) {
+            if (current instanceof SQLException) {
+                SQLException next = (SQLException) current;
+                while (next != null && chained.add(next)) {
+                    if (isRetryable(next)) {
+                        return true;
+                    }
+                    next = next.getNextException();
+                }
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    protected boolean isRetryable(@NotNull SQLException exception) {
+        if (exception instanceof SQLTransactionRollbackException) {
+            return true;
+        }
+        String sqlState = exception.getSQLState();
+        return sqlState != null && sqlStates.contains(sqlState);
+    }
+}
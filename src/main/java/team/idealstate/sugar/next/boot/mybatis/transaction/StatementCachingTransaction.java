@@ -0,0 +1,56 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.transaction;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+final class StatementCachingTransaction extends JdbcTransaction {
+
+    private final PreparedStatementCache statementCache;
+    private volatile Connection cachingConnection;
+
+    StatementCachingTransaction(
+            DataSource dataSource,
+            TransactionIsolationLevel desiredLevel,
+            boolean desiredAutoCommit,
+            @NotNull PreparedStatementCache statementCache) {
+        super(dataSource, desiredLevel, desiredAutoCommit);
+        this.statementCache = Validation.requireNotNull(statementCache, "Statement cache must not be null.");
+    }
+
+    StatementCachingTransaction(Connection connection, @NotNull PreparedStatementCache statementCache) {
+        super(connection);
+        this.statementCache = Validation.requireNotNull(statementCache, "Statement cache must not be null.");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        Connection cachingConnection = this.cachingConnection;
+        if (cachingConnection == null) {
+            cachingConnection = statementCache.wrap(connection);
+            this.cachingConnection = cachingConnection;
+        }
+        return cachingConnection;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.transaction;
+
+import java.sql.Connection;
+import javax.sql.DataSource;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.TransactionFactory;
+
+@RequiredArgsConstructor
+public class StatementCachingTransactionFactory implements TransactionFactory {
+
+    @NonNull
+    private final PreparedStatementCache statementCache;
+
+    @Override
+    public Transaction newTransaction(Connection conn) {
+        return new StatementCachingTransaction(conn, statementCache);
+    }
+
+    @Override
+    public Transaction newTransaction(DataSource dataSource, TransactionIsolationLevel level, boolean autoCommit) {
+        return new StatementCachingTransaction(dataSource, level, autoCommit, statementCache);
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.transaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Data;
+import lombok.NonNull;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.boot.mybatis.metrics.MyBatisMetrics;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+public final class TransactionWatchdog {
+
+    private final MyBatisMetrics metrics;
+    private final long interval;
+    private final long warnAfter;
+    private final long abortAfter;
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ThreadLocal<Entry> current = new ThreadLocal<>();
+    private final Thread watchdog;
+
+    public TransactionWatchdog(@NotNull MyBatisMetrics metrics, long interval, long warnAfter, long abortAfter) {
+        Validation.notNull(metrics, "Metrics must not be null.");
+        Validation.is(interval > 0, "Interval must be greater than 0.");
+        Validation.is(warnAfter > 0, "Warn after must be greater than 0.");
+        Validation.is(abortAfter >= 0, "Abort after must not be negative.");
+        this.metrics = metrics;
+        this.interval = interval;
+        this.warnAfter = TimeUnit.MILLISECONDS.toNanos(warnAfter);
+        this.abortAfter = TimeUnit.MILLISECONDS.toNanos(abortAfter);
+        metrics.gauge("transaction.open", () -> (long) entries.size());
+        metrics.gauge("transaction.oldest", this::getOldestAge);
+        this.watchdog = new Thread(this::watch, "mybatis-transaction-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    public void close() {
+        watchdog.interrupt();
+    }
+
+    @NotNull
+    public Entry open() {
+        Thread thread = Thread.currentThread();
+        Entry entry = new Entry(ids.incrementAndGet(), thread, System.nanoTime(), System.currentTimeMillis());
+        entry.previous = current.get();
+        current.set(entry);
+        entries.put(entry.id, entry);
+        return entry;
+    }
+
+    public void onStatement(@NotNull String statement) {
+        Entry entry = getCurrent();
+        if (entry == null) {
+            return;
+        }
+        entry.statement = statement;
+        if (entry.aborted) {
+            throw new MyBatisException(String.format(
+                    "Transaction %s has been aborted by the watchdog after %sms.", entry.id, entry.getAge()));
+        }
+    }
+
+    public int getQueryTimeout() {
+        Entry entry = getCurrent();
+        if (entry == null || abortAfter == 0L) {
+            return 0;
+        }
+        long remaining = entry.start + abortAfter - System.nanoTime();
+        if (remaining <= 0L) {
+            entry.aborted = true;
+            throw new MyBatisException(String.format(
+                    "Transaction %s has been aborted by the watchdog after %sms.", entry.id, entry.getAge()));
+        }
+        return (int) Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(remaining + TimeUnit.SECONDS.toNanos(1L) - 1L));
+    }
+
+    @NotNull
+    public List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            StackTraceElement[] stack = entry.stack;
+            snapshots.add(new Snapshot(
+                    entry.id,
+                    entry.thread.getName(),
+                    entry.openedAt,
+                    entry.getAge(),
+                    entry.statement,
+                    stack == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(stack)),
+                    entry.aborted));
+        }
+        snapshots.sort(Comparator.comparingLong(Snapshot::getAge).reversed());
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    @Nullable
+    private Entry getCurrent() {
+        Entry entry = current.get();
+        if (entry == null || !entry.closed) {
+            return entry;
+        }
+        while (entry != null && entry.closed) {
+            entry = entry.previous;
+        }
+        if (entry == null) {
+            current.remove();
+        } else {
+            current.set(entry);
+        }
+        return entry;
+    }
+
+    private long getOldestAge() {
+        long oldest = 0L;
+        for (Entry entry : entries.values()) {
+            oldest = Math.max(oldest, entry.getAge());
+        }
+        return oldest;
+    }
+
+    private void watch() {
+        while (true) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                inspect();
+            } catch (Throwable e) {
+                Log.error(e);
+            }
+        }
+    }
+
+    private void inspect() {
+        long now = System.nanoTime();
+        for (Entry entry : entries.values()) {
+            long age = now - entry.start;
+            if (age < warnAfter || entry.closed) {
+                continue;
+            }
+            entry.stack = entry.thread.getStackTrace();
+            if (abortAfter > 0L && age >= abortAfter && !entry.aborted) {
+                entry.aborted = true;
+                metrics.increment("transaction.watchdog.aborts");
+                Log.warn(describe("aborted", entry, age));
+            } else if (!entry.warned) {
+                entry.warned = true;
+                metrics.increment("transaction.watchdog.warnings");
+                Log.warn(describe("open", entry, age));
+            }
+        }
+    }
+
+    @NotNull
+    private static String describe(@NotNull String state, @NotNull Entry entry, long age) {
+        StringBuilder builder = new StringBuilder(256)
+                .append(String.format(
+                        "Transaction %s on thread '%s' has been %s for %sms, current statement: %s",
+                        entry.id,
+                        entry.thread.getName(),
+                        state,
+                        TimeUnit.NANOSECONDS.toMillis(age),
+                        entry.statement));
+        StackTraceElement[] stack = entry.stack;
+        if (stack != null) {
+            for (StackTraceElement element : stack) {
+                builder.append(System.lineSeparator()).append("\tat ").append(element);
+            }
+        }
+        return builder.toString();
+    }
+
+    public final class Entry {
+        private final long id;
+        private final Thread thread;
+        private final long start;
+        private final long openedAt;
+        private Entry previous;
+        private volatile String statement;
+        private volatile StackTraceElement[] stack;
+        private volatile boolean warned;
+        private volatile boolean aborted;
+        private volatile boolean closed;
+
+        private Entry(long id, @NotNull Thread thread, long start, long openedAt) {
+            this.id = id;
+            this.thread = thread;
+            this.start = start;
+            this.openedAt = openedAt;
+        }
+
+        private long getAge() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            entries.remove(id);
+            if (current.get() == this) {
+                if (previous == null) {
+                    current.remove();
+                } else {
+                    current.set(previous);
+                }
+            }
+        }
+    }
+
+    @Data
+    public static final class Snapshot {
+        private final long id;
+
+        @NonNull
+        private final String thread;
+
+        private final long openedAt;
+        private final long age;
+        private final String statement;
+
+        @NonNull
+        private final List<StackTraceElement> stack;
+
+        private final boolean aborted;
+    }
+}
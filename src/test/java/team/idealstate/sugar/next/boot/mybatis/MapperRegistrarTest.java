@@ -0,0 +1,237 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.database.DatabaseSessionFactory;
+
+class MapperRegistrarTest {
+
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 8;
+    private static final List<Class<? extends CountRepository>> NAMESPACES =
+            Collections.unmodifiableList(Arrays.asList(
+                    Repository01.class,
+                    Repository02.class,
+                    Repository03.class,
+                    Repository04.class,
+                    Repository05.class,
+                    Repository06.class,
+                    Repository07.class,
+                    Repository08.class,
+                    Repository09.class,
+                    Repository10.class,
+                    Repository11.class,
+                    Repository12.class,
+                    Repository13.class,
+                    Repository14.class,
+                    Repository15.class,
+                    Repository16.class));
+
+    @Test
+    void registersEachNamespaceOnceUnderContention() throws Exception {
+        MapperRegistrar registrar = new MapperRegistrar();
+        Configuration configuration = new Configuration();
+        Map<Class<?>, AtomicInteger> parses = new ConcurrentHashMap<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        runConcurrently(() -> {
+            for (Class<?> namespace : NAMESPACES) {
+                try {
+                    registrar.register(namespace, () -> {
+                        parses.computeIfAbsent(namespace, it -> new AtomicInteger())
+                                .incrementAndGet();
+                        configuration.addMapper(namespace);
+                    });
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }
+        });
+        assertTrue(errors.isEmpty(), () -> "Unexpected errors: " + errors);
+        for (Class<?> namespace : NAMESPACES) {
+            assertTrue(registrar.isRegistered(namespace));
+            assertTrue(configuration.hasMapper(namespace));
+            assertEquals(1, parses.get(namespace).get(), namespace.getName());
+        }
+    }
+
+    @Test
+    void getRepositoryRegistersConcurrentlyAcrossSessions() throws Exception {
+        MyBatis myBatis = TestSupport.createMyBatis(
+                "mapper-registrar",
+                null,
+                "CREATE TABLE IF NOT EXISTS registrar_user (id BIGINT PRIMARY KEY)",
+                "MERGE INTO registrar_user VALUES (1), (2), (3)");
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        runConcurrently(() -> {
+            MyBatisSession session = (MyBatisSession) myBatis.openSession(
+                    DatabaseSessionFactory.DEFAULT_EXECUTION_MODE, DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL);
+            int offset = ThreadLocalRandom.current().nextInt(NAMESPACES.size());
+            try {
+                for (int i = 0; i < NAMESPACES.size(); i++) {
+                    Class<? extends CountRepository> namespace = NAMESPACES.get((offset + i) % NAMESPACES.size());
+                    assertEquals(3L, session.getRepository(namespace).count());
+                }
+            } catch (Throwable e) {
+                errors.add(e);
+            } finally {
+                session.close();
+            }
+        });
+        assertTrue(errors.isEmpty(), () -> "Unexpected errors: " + errors);
+    }
+
+    @Test
+    void propagatesFailureToEveryWaiterAndRetries() throws Exception {
+        MapperRegistrar registrar = new MapperRegistrar();
+        MyBatisException failure = new MyBatisException("registration failed");
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        List<Throwable> received = new CopyOnWriteArrayList<>();
+        List<Thread> waiters = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            waiters.add(new Thread(() -> {
+                try {
+                    registrar.register(Repository01.class, attempts::incrementAndGet);
+                } catch (Throwable e) {
+                    received.add(e);
+                }
+            }));
+        }
+        Thread owner = new Thread(() -> {
+            try {
+                registrar.register(Repository01.class, () -> {
+                    attempts.incrementAndGet();
+                    started.countDown();
+                    awaitWaiting(waiters);
+                    throw failure;
+                });
+            } catch (Throwable e) {
+                received.add(e);
+            }
+        });
+        owner.start();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        waiters.forEach(Thread::start);
+        owner.join(TimeUnit.SECONDS.toMillis(10));
+        for (Thread waiter : waiters) {
+            waiter.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        assertEquals(THREADS + 1, received.size());
+        for (Throwable e : received) {
+            assertSame(failure, e);
+        }
+        assertEquals(1, attempts.get());
+        assertFalse(registrar.isRegistered(Repository01.class));
+
+        registrar.register(Repository01.class, attempts::incrementAndGet);
+        assertEquals(2, attempts.get());
+        assertTrue(registrar.isRegistered(Repository01.class));
+    }
+
+    private static void awaitWaiting(List<Thread> waiters) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (waiters.stream().allMatch(it -> it.getState() == Thread.State.WAITING)) {
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            List<Future<?>> futures = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        task.run();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public interface CountRepository {
+        @Select("SELECT COUNT(*) FROM registrar_user")
+        long count();
+    }
+
+    public interface Repository01 extends CountRepository {}
+
+    public interface Repository02 extends CountRepository {}
+
+    public interface Repository03 extends CountRepository {}
+
+    public interface Repository04 extends CountRepository {}
+
+    public interface Repository05 extends CountRepository {}
+
+    public interface Repository06 extends CountRepository {}
+
+    public interface Repository07 extends CountRepository {}
+
+    public interface Repository08 extends CountRepository {}
+
+    public interface Repository09 extends CountRepository {}
+
+    public interface Repository10 extends CountRepository {}
+
+    public interface Repository11 extends CountRepository {}
+
+    public interface Repository12 extends CountRepository {}
+
+    public interface Repository13 extends CountRepository {}
+
+    public interface Repository14 extends CountRepository {}
+
+    public interface Repository15 extends CountRepository {}
+
+    public interface Repository16 extends CountRepository {}
+}
@@ -0,0 +1,219 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.boot.mybatis.annotation.ShardKey;
+import team.idealstate.sugar.next.boot.mybatis.annotation.ShardMerge;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+import team.idealstate.sugar.next.boot.mybatis.spi.ShardDataSourceProvider;
+import team.idealstate.sugar.next.database.DatabaseSessionFactory;
+
+class ShardedMyBatisTest {
+
+    private static final int SHARDS = 3;
+    private static final int ORDERS = 12;
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final Set<String> cacheIds = ConcurrentHashMap.newKeySet();
+    private ShardedMyBatis myBatis;
+    private OrderRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        int database = DATABASES.incrementAndGet();
+        Map<String, DataSource> dataSources = new LinkedHashMap<>(SHARDS);
+        for (int i = 0; i < SHARDS; i++) {
+            dataSources.put(
+                    "shard-" + i,
+                    TestSupport.createDataSource(
+                            "sharded-" + database + "-" + i,
+                            "CREATE TABLE shard_order (id BIGINT PRIMARY KEY, customer_id BIGINT, amount INT)"));
+        }
+        myBatis = ShardedMyBatis.standalone(
+                TestSupport.createConfiguration(true),
+                new ModuloShardDataSourceProvider(dataSources),
+                (id, expired, properties) -> {
+                    cacheIds.add(id);
+                    return new PerpetualCache(id);
+                },
+                Collections.emptyList());
+        repository = myBatis.getRepository(OrderRepository.class);
+        for (long id = 1; id <= ORDERS; id++) {
+            assertEquals(1, repository.insert(new ShardOrder(id, id % 6, (int) id * 10)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        myBatis.close();
+    }
+
+    @Test
+    void routesCallsByShardKey() {
+        for (int i = 0; i < SHARDS; i++) {
+            MyBatisSession session = (MyBatisSession) myBatis.getShard("shard-" + i)
+                    .openSession(
+                            DatabaseSessionFactory.DEFAULT_EXECUTION_MODE,
+                            DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL);
+            try {
+                List<ShardOrder> orders = session.getRepository(OrderRepository.class).findAll();
+                assertEquals(ORDERS / SHARDS, orders.size());
+                for (ShardOrder order : orders) {
+                    assertEquals(i, order.getCustomerId() % SHARDS);
+                }
+            } finally {
+                session.close();
+            }
+        }
+        List<ShardOrder> orders = repository.findByCustomer(4L);
+        assertEquals(Arrays.asList(4L, 10L), ids(orders));
+    }
+
+    @Test
+    void concatenatesScatteredResults() {
+        List<ShardOrder> orders = repository.findAll();
+        assertEquals(ORDERS, orders.size());
+        Set<Long> expected = new HashSet<>();
+        for (long id = 1; id <= ORDERS; id++) {
+            expected.add(id);
+        }
+        assertEquals(expected, new HashSet<>(ids(orders)));
+        assertEquals(7L, repository.findById(7L).getId());
+    }
+
+    @Test
+    void sortMergesScatteredResults() {
+        List<Long> ids = ids(repository.findAllOrdered());
+        assertEquals(ORDERS, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i + 1L, (long) ids.get(i));
+        }
+        assertEquals(Arrays.asList(12L, 11L, 10L, 9L, 8L), ids(repository.findLargest()));
+    }
+
+    @Test
+    void mergesScalarResults() {
+        assertEquals(ORDERS, repository.count());
+        assertTrue(repository.existsAbove(110));
+        assertFalse(repository.existsAbove(1000));
+    }
+
+    @Test
+    void rejectsScatteredWrites() {
+        assertThrows(MyBatisException.class, () -> repository.touchFrom(60));
+    }
+
+    @Test
+    void prefixesCacheNamespacesWithShard() {
+        repository.findAll();
+        String namespace = OrderRepository.class.getName();
+        assertEquals(
+                new HashSet<>(Arrays.asList("shard-0:" + namespace, "shard-1:" + namespace, "shard-2:" + namespace)),
+                cacheIds);
+    }
+
+    private static List<Long> ids(List<ShardOrder> orders) {
+        return orders.stream().map(ShardOrder::getId).collect(Collectors.toList());
+    }
+
+    public interface OrderRepository {
+
+        @Insert("INSERT INTO shard_order (id, customer_id, amount) VALUES (#{id}, #{customerId}, #{amount})")
+        int insert(@ShardKey("customerId") ShardOrder order);
+
+        @Select("SELECT id, customer_id, amount FROM shard_order WHERE customer_id = #{customerId} ORDER BY id")
+        List<ShardOrder> findByCustomer(@ShardKey @Param("customerId") long customerId);
+
+        @Select("SELECT id, customer_id, amount FROM shard_order WHERE id = #{id}")
+        ShardOrder findById(@Param("id") long id);
+
+        @Select("SELECT id, customer_id, amount FROM shard_order ORDER BY id")
+        List<ShardOrder> findAll();
+
+        @ShardMerge(orderBy = "id")
+        @Select("SELECT id, customer_id, amount FROM shard_order ORDER BY id")
+        List<ShardOrder> findAllOrdered();
+
+        @ShardMerge(orderBy = "amount", descending = true, limit = 5)
+        @Select("SELECT id, customer_id, amount FROM shard_order ORDER BY amount DESC LIMIT 5")
+        List<ShardOrder> findLargest();
+
+        @Select("SELECT COUNT(*) FROM shard_order")
+        long count();
+
+        @Update("UPDATE shard_order SET amount = amount WHERE amount >= #{amount}")
+        int touchFrom(@Param("amount") int amount);
+
+        @Select("SELECT COUNT(*) > 0 FROM shard_order WHERE amount > #{amount}")
+        boolean existsAbove(@Param("amount") int amount);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ShardOrder {
+        private long id;
+        private long customerId;
+        private int amount;
+    }
+
+    private static final class ModuloShardDataSourceProvider implements ShardDataSourceProvider {
+        private final Map<String, DataSource> dataSources;
+
+        private ModuloShardDataSourceProvider(Map<String, DataSource> dataSources) {
+            this.dataSources = dataSources;
+        }
+
+        @Override
+        public Map<String, DataSource> getDataSources() {
+            return dataSources;
+        }
+
+        @Override
+        public String getShard(Object key, List<String> shards) {
+            return shards.get((int) (((Number) key).longValue() % shards.size()));
+        }
+    }
+}
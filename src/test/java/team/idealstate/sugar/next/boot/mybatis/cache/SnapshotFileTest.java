@@ -0,0 +1,60 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package team.idealstate.sugar.next.boot.mybatis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsFreshSnapshot() throws Exception {
+        Path path = directory.resolve("fresh.snapshot");
+        SnapshotFile.write(path, 42L, Collections.emptyList());
+        assertNotNull(SnapshotFile.read(path, 42L, 60_000L));
+        assertNotNull(SnapshotFile.read(path, 42L, 0L));
+        assertTrue(Files.exists(path));
+    }
+
+    @Test
+    void rejectsFingerprintMismatch() throws Exception {
+        Path path = directory.resolve("mismatch.snapshot");
+        SnapshotFile.write(path, 42L, Collections.emptyList());
+        assertNull(SnapshotFile.read(path, 43L, 0L));
+    }
+
+    @Test
+    void discardsExpiredSnapshot() throws Exception {
+        Path path = directory.resolve("expired.snapshot");
+        SnapshotFile.write(path, 42L, Collections.emptyList());
+        Thread.sleep(50L);
+        assertNull(SnapshotFile.read(path, 42L, 10L));
+        assertFalse(Files.exists(path));
+    }
+}
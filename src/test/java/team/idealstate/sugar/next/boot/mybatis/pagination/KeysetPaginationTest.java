@@ -0,0 +1,59 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package team.idealstate.sugar.next.boot.mybatis.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.boot.mybatis.exception.MyBatisException;
+
+class KeysetPaginationTest {
+
+    @Test
+    void roundTripsTemporalAndUuidValues() {
+        Timestamp timestamp = Timestamp.valueOf("2025-03-04 05:06:07.123456789");
+        Object[] values = {
+            timestamp,
+            new Date(1_700_000_000_000L),
+            Instant.ofEpochSecond(1_700_000_000L, 42),
+            LocalDate.of(2025, 3, 4),
+            LocalDateTime.of(2025, 3, 4, 5, 6, 7, 8),
+            OffsetDateTime.of(2025, 3, 4, 5, 6, 7, 8, ZoneOffset.ofHours(8)),
+            ZonedDateTime.of(2025, 3, 4, 5, 6, 7, 8, ZoneId.of("Asia/Shanghai")),
+            UUID.randomUUID(),
+            42L
+        };
+        assertArrayEquals(values, KeysetPagination.decode(KeysetPagination.encode(values), values.length));
+    }
+
+    @Test
+    void rejectsUnsupportedValues() {
+        assertThrows(MyBatisException.class, () -> KeysetPagination.encode(new Object[] {Thread.State.NEW}));
+    }
+}
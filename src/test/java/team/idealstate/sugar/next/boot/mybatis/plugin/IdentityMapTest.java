@@ -0,0 +1,122 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.plugin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IdentityMapTest {
+
+    private static final String NAMESPACE = UserRepository.class.getName();
+
+    private Configuration configuration;
+    private IdentityMap identityMap;
+
+    @BeforeEach
+    void setUp() {
+        configuration = new Configuration();
+        configuration.addMapper(UserRepository.class);
+        identityMap = new IdentityMap(16, IdentityMap.newIdentities());
+    }
+
+    @Test
+    void doesNotReuseProjectionForFullRow() {
+        User summary = new User(1L, "alice", null);
+        identityMap.put(statement("findSummaries"), NAMESPACE, key("summaries"), Collections.singletonList(summary));
+
+        User full = new User(1L, "alice", 30);
+        List<Object> rows =
+                identityMap.put(statement("findById"), NAMESPACE, key("findById"), Collections.singletonList(full));
+
+        assertSame(full, rows.get(0));
+        assertEquals(30, ((User) rows.get(0)).getAge());
+    }
+
+    @Test
+    void reusesInstanceForSameResultMap() {
+        User first = new User(1L, "alice", 30);
+        identityMap.put(statement("findById"), NAMESPACE, key("findById"), Collections.singletonList(first));
+
+        User second = new User(1L, "alice", 30);
+        List<Object> rows =
+                identityMap.put(statement("findAll"), NAMESPACE, key("findAll"), Collections.singletonList(second));
+
+        assertSame(first, rows.get(0));
+        assertNotSame(second, rows.get(0));
+    }
+
+    private MappedStatement statement(String method) {
+        return configuration.getMappedStatement(NAMESPACE + "." + method);
+    }
+
+    private static CacheKey key(String value) {
+        CacheKey key = new CacheKey();
+        key.update(value);
+        return key;
+    }
+
+    public interface UserRepository {
+
+        @Results(
+                id = "user",
+                value = {
+                    @Result(column = "id", property = "id", id = true),
+                    @Result(column = "name", property = "name"),
+                    @Result(column = "age", property = "age")
+                })
+        @Select("SELECT id, name, age FROM identity_user WHERE id = #{id}")
+        User findById(long id);
+
+        @ResultMap("user")
+        @Select("SELECT id, name, age FROM identity_user")
+        List<User> findAll();
+
+        @Results(
+                id = "summary",
+                value = {
+                    @Result(column = "id", property = "id", id = true),
+                    @Result(column = "name", property = "name")
+                })
+        @Select("SELECT id, name FROM identity_user")
+        List<User> findSummaries();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class User {
+        private Long id;
+        private String name;
+        private Integer age;
+    }
+}
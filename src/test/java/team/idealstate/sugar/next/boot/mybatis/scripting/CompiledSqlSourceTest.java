@@ -0,0 +1,195 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package team.idealstate.sugar.next.boot.mybatis.scripting;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.Data;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class CompiledSqlSourceTest {
+
+    private final Configuration configuration = new Configuration();
+
+    @Test
+    void matchesIfShapes() {
+        DynamicSqlSource sqlSource = parse("SELECT * FROM user <where>"
+                + "<if test=\"name != null and name != ''\">AND name = #{name}</if>"
+                + "<if test=\"age != null and age > 18\">AND age = #{age}</if>"
+                + "</where>");
+        assertEquivalent(
+                sqlSource,
+                parameters("name", "alice", "age", 20),
+                parameters("name", "", "age", 10),
+                parameters("name", null, "age", 30),
+                parameters("name", "bob", "age", null),
+                parameters("name", null, "age", null));
+    }
+
+    @Test
+    void matchesChooseShapes() {
+        DynamicSqlSource sqlSource = parse("SELECT * FROM user WHERE "
+                + "<choose>"
+                + "<when test=\"status == 'active'\">active = TRUE</when>"
+                + "<when test=\"status == 'banned'\">banned = TRUE AND reason = #{reason}</when>"
+                + "<otherwise>deleted = FALSE</otherwise>"
+                + "</choose>");
+        assertEquivalent(
+                sqlSource,
+                parameters("status", "active", "reason", null),
+                parameters("status", "banned", "reason", "spam"),
+                parameters("status", "archived", "reason", null),
+                parameters("status", null, "reason", null));
+    }
+
+    @Test
+    void matchesForEachShapes() {
+        DynamicSqlSource sqlSource = parse("SELECT * FROM user WHERE id IN "
+                + "<foreach collection=\"ids\" item=\"id\" index=\"i\" open=\"(\" separator=\",\" close=\")\">"
+                + "#{id}"
+                + "</foreach>");
+        assertEquivalent(
+                sqlSource,
+                parameters("ids", Collections.singletonList(1L)),
+                parameters("ids", Arrays.asList(1L, 2L)),
+                parameters("ids", Arrays.asList(3L, 4L)),
+                parameters("ids", Arrays.asList(5L, 6L, 7L)),
+                parameters("ids", new long[] {8L, 9L}));
+    }
+
+    @Test
+    void sharesShapesOfSimpleTests() throws Exception {
+        CompiledSqlSource compiled = assertEquivalent(
+                parse("SELECT * FROM user <where><if test=\"name != null\">AND name = #{name}</if></where>"),
+                parameters("name", "alice"),
+                parameters("name", "bob"),
+                parameters("name", "carol"));
+        assertEquals(1, shapes(compiled));
+    }
+
+    @Test
+    void separatesShapesOfStrictTests() throws Exception {
+        CompiledSqlSource compiled = assertEquivalent(
+                parse("SELECT * FROM user <where><if test=\"age > 18\">AND age = #{age}</if></where>"),
+                parameters("age", 10),
+                parameters("age", 20),
+                parameters("age", 30));
+        assertEquals(3, shapes(compiled));
+    }
+
+    @Test
+    void separatesShapesOfExactTests() throws Exception {
+        CompiledSqlSource compiled = assertEquivalent(
+                parse("SELECT * FROM user <where><if test=\"name.length() > 3\">AND name = #{name}</if></where>"),
+                parameters("name", "bob"),
+                parameters("name", "alice"),
+                parameters("name", "carol"));
+        assertEquals(3, shapes(compiled));
+    }
+
+    @Test
+    void bypassesNonComparableValuesInStrictTests() throws Exception {
+        Owner owner = new Owner(1L);
+        Owner other = new Owner(2L);
+        CompiledSqlSource compiled = assertEquivalent(
+                parse("SELECT * FROM item <where><if test=\"owner == target\">AND owner_id = #{owner.id}</if></where>"),
+                parameters("owner", owner, "target", owner),
+                parameters("owner", owner, "target", other),
+                parameters("owner", other, "target", other));
+        assertEquals(0, shapes(compiled));
+    }
+
+    private DynamicSqlSource parse(String script) {
+        SqlSource sqlSource = new XMLLanguageDriver()
+                .createSqlSource(configuration, "<script>" + script + "</script>", Map.class);
+        assertTrue(sqlSource instanceof DynamicSqlSource);
+        return (DynamicSqlSource) sqlSource;
+    }
+
+    private static CompiledSqlSource assertEquivalent(DynamicSqlSource sqlSource, Map<?, ?>... parameters) {
+        CompiledSqlSource compiled = CompiledSqlSource.of(sqlSource, 16);
+        assertNotNull(compiled);
+        for (int round = 0; round < 3; round++) {
+            for (Map<?, ?> parameter : parameters) {
+                BoundSql expected = sqlSource.getBoundSql(parameter);
+                BoundSql actual = compiled.getBoundSql(parameter);
+                assertEquals(expected.getSql(), actual.getSql());
+                assertEquals(properties(expected), properties(actual));
+                for (ParameterMapping mapping : expected.getParameterMappings()) {
+                    String property = mapping.getProperty();
+                    if (expected.hasAdditionalParameter(property)) {
+                        assertEquals(
+                                expected.getAdditionalParameter(property), actual.getAdditionalParameter(property));
+                    }
+                }
+            }
+        }
+        return compiled;
+    }
+
+    private static List<String> properties(BoundSql boundSql) {
+        return boundSql.getParameterMappings().stream()
+                .map(ParameterMapping::getProperty)
+                .collect(Collectors.toList());
+    }
+
+    private static int shapes(CompiledSqlSource compiled) throws Exception {
+        Field field = CompiledSqlSource.class.getDeclaredField("shapes");
+        field.setAccessible(true);
+        Map<?, ?> shapes = (Map<?, ?>) field.get(compiled);
+        return (int) shapes.values().stream()
+                .filter(shape -> {
+                    try {
+                        Field sql = shape.getClass().getDeclaredField("sql");
+                        sql.setAccessible(true);
+                        return sql.get(shape) != null;
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .count();
+    }
+
+    private static Map<String, Object> parameters(Object... entries) {
+        Map<String, Object> parameters = new HashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            parameters.put((String) entries[i], entries[i + 1]);
+        }
+        return parameters;
+    }
+
+    @Data
+    public static final class Owner {
+        private final long id;
+    }
+}
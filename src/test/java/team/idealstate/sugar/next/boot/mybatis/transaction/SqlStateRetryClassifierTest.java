@@ -0,0 +1,68 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.boot.mybatis.transaction;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.Arrays;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.junit.jupiter.api.Test;
+
+class SqlStateRetryClassifierTest {
+
+    private final SqlStateRetryClassifier classifier = new SqlStateRetryClassifier(Arrays.asList("40001", "40P01"));
+
+    @Test
+    void classifiesConfiguredSqlStates() {
+        assertTrue(classifier.isRetryable(new SQLException("serialization failure", "40001")));
+        assertTrue(classifier.isRetryable(new SQLException("deadlock detected", "40P01")));
+        assertFalse(classifier.isRetryable(new SQLException("unique violation", "23505")));
+        assertFalse(classifier.isRetryable(new SQLException("no state")));
+    }
+
+    @Test
+    void classifiesTransactionRollbackSubclass() {
+        assertTrue(classifier.isRetryable(new SQLTransactionRollbackException("rolled back")));
+    }
+
+    @Test
+    void classifiesCauseChain() {
+        SQLException deadlock = new SQLException("deadlock detected", "40P01");
+        assertTrue(classifier.isRetryable(new PersistenceException(new RuntimeException(deadlock))));
+        assertFalse(classifier.isRetryable(new PersistenceException(new IllegalStateException("unrelated"))));
+    }
+
+    @Test
+    void classifiesNextExceptionChain() {
+        SQLException batch = new SQLException("batch failed", "HY000");
+        batch.setNextException(new SQLException("serialization failure", "40001"));
+        assertTrue(classifier.isRetryable(batch));
+        assertTrue(classifier.isRetryable(new PersistenceException(batch)));
+    }
+
+    @Test
+    void toleratesCyclicChains() {
+        SQLException first = new SQLException("first", "HY000");
+        SQLException second = new SQLException("second", "HY000");
+        first.setNextException(second);
+        second.initCause(first);
+        assertFalse(classifier.isRetryable(first));
+    }
+}